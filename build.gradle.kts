@@ -3,6 +3,7 @@ import org.jetbrains.kotlin.gradle.tasks.KotlinCompile
 plugins {
 	id("org.springframework.boot") version "2.6.4"
 	id("org.sonarqube") version "3.3"
+	id("me.champeau.jmh") version "0.6.6"
 	kotlin("jvm") version "1.5.21"
 	kotlin("plugin.spring") version "1.5.21"
 }
@@ -26,8 +27,10 @@ dependencies {
 		exclude("org.apache.logging.log4j")
 	}
 	annotationProcessor("org.springframework.boot:spring-boot-configuration-processor:2.6.4")
+	annotationProcessor("org.springframework:spring-context-indexer:5.3.16")
 	implementation("org.springframework.boot:spring-boot-starter:2.6.4")
 	implementation("org.springframework.boot:spring-boot-starter-validation:2.6.4")
+	implementation("io.micrometer:micrometer-registry-prometheus:1.8.3")
 	implementation("com.fasterxml.jackson.module:jackson-module-kotlin:2.13.1")
 	implementation("org.jetbrains.kotlin:kotlin-reflect:1.6.10")
 	implementation("org.jetbrains.kotlin:kotlin-stdlib-jdk8:1.6.10")
@@ -36,6 +39,94 @@ dependencies {
 	testImplementation("org.springframework.boot:spring-boot-starter-test:2.6.4")
 }
 
+val stub: SourceSet by sourceSets.creating
+
+dependencies {
+	"stubImplementation"("com.google.code.gson:gson:2.8.9")
+}
+
+tasks.register<JavaExec>("runStub") {
+	group = "application"
+	description = "Runs the local VK API stand-in server"
+	classpath = stub.runtimeClasspath
+	mainClass.set("ru.devvault.vk.poster.stub.VkApiStubServer")
+	args = (project.findProperty("stubArgs") as String?)?.split(" ") ?: emptyList()
+}
+
+// fast start: AppCDS needs plain jars on the class path, so the app runs from the plain jar and its dependencies
+val appMainClass = "ru.devvault.vk.poster.VkPosterApplication"
+val appClasspath = files(tasks.named("jar"), configurations.runtimeClasspath)
+val cdsDirectory = layout.buildDirectory.dir("cds")
+val cdsClassList = cdsDirectory.map { it.file("classes.lst").asFile }
+val cdsArchiveFile = cdsDirectory.map { it.file("app.jsa").asFile }
+val fastJvmArgs = listOf("-Xshare:auto", "-XX:TieredStopAtLevel=1")
+val fastArgs = listOf("--spring.profiles.active=fast")
+
+val cdsClassListTask = tasks.register<JavaExec>("cdsClassList") {
+	group = "application"
+	description = "Records the classes loaded during a startup check"
+	classpath = appClasspath
+	mainClass.set(appMainClass)
+	args = fastArgs + "--startup-check"
+	doFirst {
+		cdsDirectory.get().asFile.mkdirs()
+		jvmArgs = listOf("-Xshare:off", "-XX:DumpLoadedClassList=${cdsClassList.get()}")
+	}
+}
+
+val cdsArchiveTask = tasks.register<JavaExec>("cdsArchive") {
+	group = "application"
+	description = "Builds the AppCDS archive from the recorded class list"
+	dependsOn(cdsClassListTask)
+	classpath = appClasspath
+	mainClass.set(appMainClass)
+	doFirst {
+		jvmArgs = listOf("-Xshare:dump", "-XX:SharedClassListFile=${cdsClassList.get()}", "-XX:SharedArchiveFile=${cdsArchiveFile.get()}")
+	}
+}
+
+tasks.register<JavaExec>("runFast") {
+	group = "application"
+	description = "Runs the application with the fast profile and the AppCDS archive"
+	dependsOn(cdsArchiveTask)
+	classpath = appClasspath
+	mainClass.set(appMainClass)
+	args = fastArgs + ((project.findProperty("appArgs") as String?)?.split(" ") ?: emptyList())
+	standardInput = System.`in`
+	doFirst {
+		jvmArgs = fastJvmArgs + "-XX:SharedArchiveFile=${cdsArchiveFile.get()}"
+	}
+}
+
+tasks.register("startupBenchmark") {
+	group = "verification"
+	description = "Compares startup time of the default launch and the fast start"
+	dependsOn(cdsArchiveTask)
+	doLast {
+		val runs = (project.findProperty("startupRuns") as String?)?.toInt() ?: 5
+		fun measure(jvmArguments: List<String>, arguments: List<String>): Long {
+			val times = (1..runs).map {
+				val started = System.nanoTime()
+				project.javaexec {
+					classpath = appClasspath
+					mainClass.set(appMainClass)
+					jvmArgs = jvmArguments
+					args = arguments + "--startup-check"
+				}
+				(System.nanoTime() - started) / 1_000_000
+			}
+			return times.sorted()[runs / 2]
+		}
+
+		val baseline = measure(emptyList(), emptyList())
+		val fast = measure(fastJvmArgs + "-XX:SharedArchiveFile=${cdsArchiveFile.get()}", fastArgs)
+		logger.lifecycle("Startup median of $runs runs, baseline: $baseline ms, fast start: $fast ms")
+		if (fast >= baseline) {
+			throw GradleException("Fast start ($fast ms) is not faster than the baseline ($baseline ms)")
+		}
+	}
+}
+
 tasks.withType<KotlinCompile> {
 	kotlinOptions {
 		freeCompilerArgs = listOf("-Xjsr305=strict")
@@ -47,6 +138,12 @@ tasks.withType<Test> {
 	useJUnitPlatform()
 }
 
+jmh {
+	jmhVersion.set("1.34")
+	profilers.add("gc")
+	resultFormat.set("JSON")
+}
+
 
 sonarqube {
   properties {
@@ -0,0 +1,80 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.matcher.MessageMatcher;
+import ru.devvault.vk.poster.model.TextItem;
+import ru.devvault.vk.poster.model.TextItemsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageFilterBenchmark {
+
+    private static final String QUERY = "Продам гараж";
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    // LAST matches only the final item, NONE scans every item without a match
+    @Param({"LAST", "NONE"})
+    private String match;
+
+    // number of message variants searched at once
+    @Param({"1", "10"})
+    private int variants;
+
+    private List<String> queries;
+    private MessageMatcher messageMatcher;
+    private List<TextItem> items;
+
+    @Setup
+    public void setUp() {
+        items = new Gson().fromJson(Payloads.items(Payloads.item("wall.get"), size), TextItemsResponse.class).getItems();
+        if ("LAST".equals(match)) {
+            items.get(size - 1).setText(items.get(size - 1).getText() + " " + QUERY);
+        }
+
+        var variantQueries = new ArrayList<String>();
+        for (var i = 1; i < variants; i++) {
+            variantQueries.add(QUERY + " вариант " + i);
+        }
+        queries = new ArrayList<>(variantQueries);
+        queries.add(QUERY);
+
+        var clientProperties = new ClientProperties();
+        clientProperties.setPostMessageQuery(QUERY);
+        clientProperties.setPostMessageQueries(variantQueries);
+        messageMatcher = new MessageMatcher(clientProperties);
+    }
+
+    // the former filter, one contains call per variant, the baseline for the matcher
+    @Benchmark
+    public Optional<TextItem> contains() {
+        for (var item : items) {
+            if (isNull(item.getText())) continue;
+
+            for (var query : queries) {
+                if (item.getText().contains(query)) return Optional.of(item);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Benchmark
+    public Optional<TextItem> find() {
+        return messageMatcher.find(items);
+    }
+}
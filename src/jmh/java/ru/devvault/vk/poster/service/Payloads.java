@@ -0,0 +1,69 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+// builds responses of any size from the recorded items in resources/payloads
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static JsonObject item(String method) {
+        var resource = Objects.requireNonNull(
+                Payloads.class.getResourceAsStream("/payloads/" + method + ".json"),
+                "No payload for " + method
+        );
+
+        try (var reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static JsonObject items(JsonObject item, int size) {
+        var items = new JsonArray(size);
+        for (var i = 0; i < size; i++) {
+            var copy = item.deepCopy();
+            copy.addProperty("id", item.get("id").getAsInt() + i);
+            if (copy.has("text")) {
+                copy.addProperty("text", copy.get("text").getAsString() + " #" + i);
+            }
+            items.add(copy);
+        }
+
+        var response = new JsonObject();
+        response.addProperty("count", size);
+        response.add("items", items);
+
+        return response;
+    }
+
+    static String response(String method, int size) {
+        var envelope = new JsonObject();
+        envelope.add("response", items(item(method), size));
+
+        return envelope.toString();
+    }
+
+    static String batchResponse(String method, int size, int calls) {
+        var item = item(method);
+        var responses = new JsonArray(calls);
+        for (var i = 0; i < calls; i++) {
+            responses.add(items(item, size));
+        }
+
+        var envelope = new JsonObject();
+        envelope.add("response", responses);
+
+        return envelope.toString();
+    }
+}
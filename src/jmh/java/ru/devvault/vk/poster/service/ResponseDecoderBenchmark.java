@@ -0,0 +1,72 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.Gson;
+import com.vk.api.sdk.exceptions.ApiException;
+import com.vk.api.sdk.exceptions.ClientException;
+import com.vk.api.sdk.objects.board.responses.GetCommentsResponse;
+import com.vk.api.sdk.objects.fave.responses.GetPagesResponse;
+import com.vk.api.sdk.objects.wall.responses.GetResponse;
+import org.openjdk.jmh.annotations.*;
+import ru.devvault.vk.poster.model.TextItemsResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDecoderBenchmark {
+
+    private static final Map<String, Class<?>> RESPONSE_TYPES = Map.of(
+            "wall.get", GetResponse.class,
+            "board.getComments", GetCommentsResponse.class,
+            "fave.getPages", GetPagesResponse.class
+    );
+
+    // the types VkService decodes these methods into
+    private static final Map<String, Class<?>> SERVICE_TYPES = Map.of(
+            "wall.get", TextItemsResponse.class,
+            "board.getComments", TextItemsResponse.class,
+            "fave.getPages", GetPagesResponse.class
+    );
+
+    @Param({"wall.get", "board.getComments", "fave.getPages"})
+    private String method;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ResponseDecoder responseDecoder;
+    private Class<?> responseType;
+    private Class<?> serviceType;
+    private String response;
+    private String batchResponse;
+
+    @Setup
+    public void setUp() {
+        responseDecoder = new ResponseDecoder(new Gson());
+        responseType = RESPONSE_TYPES.get(method);
+        serviceType = SERVICE_TYPES.get(method);
+        response = Payloads.response(method, size);
+        batchResponse = Payloads.batchResponse(method, size, VkService.EXECUTE_CALLS_LIMIT);
+    }
+
+    @Benchmark
+    public Object decodeFull() throws ApiException, ClientException {
+        return responseDecoder.decode(response, responseType);
+    }
+
+    @Benchmark
+    public Object decodeService() throws ApiException, ClientException {
+        return responseDecoder.decode(response, serviceType);
+    }
+
+    @Benchmark
+    public List<Object> decodeBatch() throws ApiException, ClientException {
+        return responseDecoder.decodeBatch(batchResponse, serviceType);
+    }
+}
@@ -5,14 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.RunMode;
+import ru.devvault.vk.poster.service.PosterScheduler;
 import ru.devvault.vk.poster.service.PosterService;
 
+import java.util.Arrays;
+
 @SpringBootApplication
 @Slf4j
 @RequiredArgsConstructor
 public class VkPosterApplication implements CommandLineRunner {
 
+	private static final String RESUME_ARGUMENT = "--resume";
+	// boots the context and exits, used to measure startup time
+	private static final String STARTUP_CHECK_ARGUMENT = "--startup-check";
+
+	private final ClientProperties clientProperties;
 	private final PosterService posterService;
+	private final PosterScheduler posterScheduler;
 
 	public static void main(String[] args) {
 		SpringApplication.run(VkPosterApplication.class, args);
@@ -20,8 +31,29 @@ public class VkPosterApplication implements CommandLineRunner {
 
 	@Override
 	public void run(String ...args) throws InterruptedException {
+		var arguments = Arrays.asList(args);
+		if (arguments.contains(STARTUP_CHECK_ARGUMENT)) {
+			log.info("Startup check passed, run mode: {}", clientProperties.getRunMode());
+			return;
+		}
+
+		var resume = arguments.contains(RESUME_ARGUMENT);
+		if (clientProperties.getRunMode() == RunMode.DAEMON) {
+			posterScheduler.start(resume);
+			return;
+		}
+
 		try {
-			System.exit(posterService.process());
+			switch (clientProperties.getRunMode()) {
+				case PLAN:
+					System.exit(posterService.plan());
+					break;
+				case EXECUTE_PLAN:
+					System.exit(posterService.executePlan(resume));
+					break;
+				default:
+					System.exit(posterService.process(resume));
+			}
 		} catch (InterruptedException e) {
 			log.error("Interrupted exception: {}", e.getMessage());
 			throw e;
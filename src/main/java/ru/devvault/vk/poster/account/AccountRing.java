@@ -0,0 +1,52 @@
+package ru.devvault.vk.poster.account;
+
+import java.util.*;
+
+// consistent hashing of groups to accounts, so a group keeps its account while others get revoked
+public class AccountRing {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final long ACCOUNT_SALT = 0x5bd1e9955bd1e995L;
+
+    private final List<VkAccount> accounts;
+    private final NavigableMap<Long, VkAccount> ring = new TreeMap<>();
+
+    public AccountRing(List<VkAccount> accounts) {
+        this.accounts = List.copyOf(accounts);
+        for (var account : this.accounts) {
+            for (var node = 0; node < VIRTUAL_NODES; node++) {
+                ring.put(hash(account.getId() ^ ACCOUNT_SALT, node), account);
+            }
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long hash(long key, int node) {
+        var h = key * 0x9e3779b97f4a7c15L + node;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    public List<VkAccount> getAccounts() {
+        return accounts;
+    }
+
+    // first active account in the configured order
+    public Optional<VkAccount> primary() {
+        return accounts.stream().filter(account -> !account.isRevoked()).findFirst();
+    }
+
+    // walks the ring clockwise past revoked accounts, only their groups move
+    public Optional<VkAccount> forGroup(int groupId) {
+        var start = hash(groupId, 0);
+        for (var account : ring.tailMap(start, true).values()) {
+            if (!account.isRevoked()) return Optional.of(account);
+        }
+        for (var account : ring.headMap(start, false).values()) {
+            if (!account.isRevoked()) return Optional.of(account);
+        }
+
+        return Optional.empty();
+    }
+}
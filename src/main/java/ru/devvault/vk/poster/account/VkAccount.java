@@ -0,0 +1,33 @@
+package ru.devvault.vk.poster.account;
+
+import com.vk.api.sdk.client.actors.UserActor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.devvault.vk.poster.limiter.VkRateLimiter;
+
+@Getter
+@RequiredArgsConstructor
+public class VkAccount {
+
+    private final UserActor actor;
+    private final VkRateLimiter rateLimiter;
+
+    private volatile boolean revoked;
+
+    public Integer getId() {
+        return actor.getId();
+    }
+
+    public void revoke() {
+        revoked = true;
+    }
+
+    public void restore() {
+        revoked = false;
+    }
+
+    @Override
+    public String toString() {
+        return "VkAccount(" + actor.getId() + (revoked ? ", revoked)" : ")");
+    }
+}
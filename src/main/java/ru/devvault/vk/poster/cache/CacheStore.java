@@ -0,0 +1,12 @@
+package ru.devvault.vk.poster.cache;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface CacheStore {
+
+    <T> Optional<T> get(String key, Type type);
+
+    void put(String key, Object value, Instant expiresAt);
+}
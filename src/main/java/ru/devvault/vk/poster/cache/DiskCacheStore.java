@@ -0,0 +1,64 @@
+package ru.devvault.vk.poster.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+
+@Slf4j
+public class DiskCacheStore implements CacheStore {
+
+    private final Gson gson;
+    private final Path directory;
+
+    public DiskCacheStore(Gson gson, Path directory) throws IOException {
+        this.gson = gson;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    @Override
+    public <T> Optional<T> get(String key, Type type) {
+        var path = path(key);
+        if (!Files.exists(path)) return Optional.empty();
+
+        try {
+            // first line is the expiration time in epoch millis, the rest is the value
+            var content = Files.readString(path, StandardCharsets.UTF_8);
+            var separator = content.indexOf('\n');
+            if (separator < 0 || Instant.ofEpochMilli(Long.parseLong(content.substring(0, separator))).isBefore(Instant.now())) {
+                Files.deleteIfExists(path);
+                return Optional.empty();
+            }
+
+            return Optional.ofNullable(gson.fromJson(content.substring(separator + 1), type));
+        } catch (IOException | NumberFormatException | JsonParseException e) {
+            log.warn("Disk cache read error, key: {}, error: {}", key, e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String key, Object value, Instant expiresAt) {
+        var path = path(key);
+        try {
+            var temp = Files.createTempFile(directory, "cache", ".tmp");
+            Files.writeString(temp, expiresAt.toEpochMilli() + "\n" + gson.toJson(value), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Disk cache write error, key: {}, error: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.devvault.vk.poster.cache;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class MemoryCacheStore implements CacheStore {
+
+    private static class Entry {
+        private final Object value;
+        private final Instant expiresAt;
+
+        private Entry(Object value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    public MemoryCacheStore(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Optional<T> get(String key, Type type) {
+        var entry = entries.get(key);
+        if (entry == null) return Optional.empty();
+
+        if (entry.expiresAt.isBefore(Instant.now())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of((T) entry.value);
+    }
+
+    @Override
+    public synchronized void put(String key, Object value, Instant expiresAt) {
+        entries.put(key, new Entry(value, expiresAt));
+    }
+}
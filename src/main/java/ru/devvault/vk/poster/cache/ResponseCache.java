@@ -0,0 +1,81 @@
+package ru.devvault.vk.poster.cache;
+
+import com.google.gson.Gson;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private final List<CacheStore> stores = new ArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResponseCache(ClientProperties clientProperties, Gson gson) throws IOException {
+        stores.add(new MemoryCacheStore(clientProperties.getCacheMaxEntries()));
+        if (!clientProperties.getCacheDirectory().isBlank()) {
+            stores.add(new DiskCacheStore(gson, Path.of(clientProperties.getCacheDirectory())));
+        }
+    }
+
+    public <T> Optional<T> getIfPresent(String key, Type type, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) return Optional.empty();
+
+        for (var i = 0; i < stores.size(); i++) {
+            Optional<T> value = stores.get(i).get(key, type);
+            if (value.isPresent()) {
+                hits.incrementAndGet();
+                log.debug("Cache hit: {}", key);
+
+                // promote to the faster tiers
+                for (var j = 0; j < i; j++) {
+                    stores.get(j).put(key, value.get(), Instant.now().plus(ttl));
+                }
+                return value;
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String key, Object value, Duration ttl) {
+        if (isNull(value) || ttl.isZero() || ttl.isNegative()) return;
+
+        var expiresAt = Instant.now().plus(ttl);
+        stores.forEach(store -> store.put(key, value, expiresAt));
+    }
+
+    public <T> T get(String key, Type type, Duration ttl, Supplier<T> loader) {
+        Optional<T> cached = getIfPresent(key, type, ttl);
+        if (cached.isPresent()) return cached.get();
+
+        var value = loader.get();
+        put(key, value, ttl);
+
+        return value;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
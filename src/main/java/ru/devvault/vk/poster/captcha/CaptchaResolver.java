@@ -0,0 +1,14 @@
+package ru.devvault.vk.poster.captcha;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface CaptchaResolver {
+
+    Optional<String> resolve(String captchaSid, String captchaImg) throws InterruptedException;
+
+    // the solution without waiting for it, empty if the resolver can only block
+    default Optional<CompletableFuture<String>> request(String captchaSid, String captchaImg) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.devvault.vk.poster.captcha;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.Scanner;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ConsoleCaptchaResolver implements CaptchaResolver {
+
+    private final Scanner scanner;
+
+    @Override
+    public Optional<String> resolve(String captchaSid, String captchaImg) {
+        synchronized (scanner) {
+            log.warn("Captcha image URL: {}", captchaImg);
+            System.out.print("Enter captcha code: ");
+
+            return Optional.of(scanner.next());
+        }
+    }
+}
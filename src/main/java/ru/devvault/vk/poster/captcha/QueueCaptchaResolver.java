@@ -0,0 +1,111 @@
+package ru.devvault.vk.poster.captcha;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import ru.devvault.vk.poster.server.LocalHttpServer;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+public class QueueCaptchaResolver implements CaptchaResolver {
+
+    public static final String PATH = "/captcha";
+
+    @Value
+    private static class PendingCaptcha {
+        String sid;
+        String img;
+        transient CompletableFuture<String> solution;
+    }
+
+    private final Map<String, PendingCaptcha> pending = new ConcurrentHashMap<>();
+    private final Gson gson;
+    private final Duration timeout;
+
+    public QueueCaptchaResolver(Gson gson, LocalHttpServer localHttpServer, Duration timeout) throws IOException {
+        this.gson = gson;
+        this.timeout = timeout;
+        localHttpServer.register(PATH, this::handle);
+    }
+
+    @Override
+    public Optional<CompletableFuture<String>> request(String captchaSid, String captchaImg) {
+        var captcha = pending.computeIfAbsent(captchaSid, sid -> {
+            // an unanswered captcha times out on its own, nobody has to wait for it
+            var solution = new CompletableFuture<String>().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            solution.whenComplete((key, error) -> {
+                pending.remove(sid);
+                if (error instanceof TimeoutException) log.warn("Captcha is not solved in {}, sid: {}", timeout, sid);
+            });
+
+            return new PendingCaptcha(sid, captchaImg, solution);
+        });
+        log.warn("Captcha is waiting for solution, sid: {}, image URL: {}", captchaSid, captchaImg);
+
+        return Optional.of(captcha.getSolution());
+    }
+
+    @Override
+    public Optional<String> resolve(String captchaSid, String captchaImg) throws InterruptedException {
+        try {
+            return Optional.of(request(captchaSid, captchaImg).orElseThrow().get());
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof TimeoutException)) log.error("Captcha solution error: {}", e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        if (isNull(form) || form.isBlank()) return Collections.emptyMap();
+
+        return Arrays.stream(form.split("&"))
+                .map(pair -> pair.split("=", 2))
+                .filter(pair -> pair.length == 2)
+                .collect(Collectors.toMap(
+                        pair -> URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                        pair -> URLDecoder.decode(pair[1], StandardCharsets.UTF_8),
+                        (first, second) -> second
+                ));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            LocalHttpServer.respond(exchange, 200, "application/json", gson.toJson(pending.values()));
+            return;
+        }
+
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            LocalHttpServer.respond(exchange, 405, "text/plain", "");
+            return;
+        }
+
+        // sid and key are accepted both in the query string and in the form body
+        var params = new HashMap<>(parseForm(exchange.getRequestURI().getRawQuery()));
+        params.putAll(parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+
+        var captcha = pending.get(params.getOrDefault("sid", ""));
+        if (isNull(captcha) || isNull(params.get("key"))) {
+            LocalHttpServer.respond(exchange, 404, "text/plain", "Unknown captcha");
+            return;
+        }
+
+        captcha.getSolution().complete(params.get("key"));
+        log.info("Captcha solution received, sid: {}", captcha.getSid());
+        LocalHttpServer.respond(exchange, 204, "text/plain", "");
+    }
+}
@@ -6,14 +6,20 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 import ru.devvault.vk.poster.enums.AuthType;
+import ru.devvault.vk.poster.enums.CaptchaMode;
+import ru.devvault.vk.poster.enums.DuplicateCheckMode;
+import ru.devvault.vk.poster.enums.RunMode;
 
+import javax.validation.Valid;
 import javax.validation.constraints.*;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 @Data
-@Configuration
+@Configuration(proxyBeanMethods = false)
 @Validated
 @ConfigurationProperties(prefix = "ru.devvault.vk.poster")
 public class ClientProperties {
@@ -21,6 +27,44 @@ public class ClientProperties {
     @NotNull
     private AuthType authType = AuthType.TOKEN;
 
+    @NotNull
+    private RunMode runMode = RunMode.ONCE;
+
+    @NotBlank
+    private String planFile = "plan.csv";
+
+    @NotNull
+    private String scheduleCron = "";
+
+    @NotNull
+    private Duration scheduleFixedDelay = Duration.ofHours(1);
+
+    @NotNull
+    private Duration shutdownTimeout = Duration.ofMinutes(1);
+
+    @NotNull
+    private CaptchaMode captchaMode = CaptchaMode.CONSOLE;
+
+    @NotNull
+    private Duration captchaTimeout = Duration.ofMinutes(5);
+
+    @NotBlank
+    private String localServerHost = "127.0.0.1";
+
+    @NotNull
+    @Min(0)
+    @Max(65535)
+    private Integer localServerPort = 8765;
+
+    @NotNull
+    private Boolean metricsEndpoint = false;
+
+    @NotNull
+    private String metricsDumpFile = "";
+
+    @NotNull
+    private Duration metricsDumpInterval = Duration.ofMinutes(1);
+
     private Integer appId;
 
     private String secretKey = "";
@@ -36,16 +80,26 @@ public class ClientProperties {
 
     private String accessToken = "";
 
+    @Valid
+    @NotNull
+    private List<Account> accounts = Collections.emptyList();
+
     @NotBlank
     private String postMessage = "";
 
-    @NotBlank
+    @NotNull
     private String postMessageQuery = "";
 
+    @NotNull
+    private List<String> postMessageQueries = Collections.emptyList();
+
     @NotNull
     @Size(min = 1)
     private Set<String> tags = Collections.emptySet();
 
+    @NotNull
+    private Map<String, @Positive Double> tagWeights = Collections.emptyMap();
+
     @NotNull
     private Boolean postToGroups = Boolean.TRUE;
 
@@ -67,13 +121,121 @@ public class ClientProperties {
     @Max(100)
     private Integer groupTopicQuerySize = 10;
 
+    @NotNull
+    private DuplicateCheckMode duplicateCheckMode = DuplicateCheckMode.SCAN;
+
+    @NotNull
+    @Min(1)
+    @Max(100)
+    private Integer wallSearchQuerySize = 10;
+
     @NotNull
     @Min(100)
     private Integer queryInterval = 1000;
 
+    @NotNull
+    private String apiEndpoint = "";
+
+    @NotNull
+    @Min(1)
+    private Integer httpMaxConnections = 20;
+
+    @NotNull
+    private Duration httpConnectTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration httpReadTimeout = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration httpKeepAlive = Duration.ofSeconds(30);
+
+    @NotNull
+    @Min(0)
+    private Integer httpConnectRetries = 2;
+
+    @Positive
+    private Double readRequestsPerSecond;
+
+    @Positive
+    private Double writeRequestsPerSecond;
+
+    @NotNull
+    @Min(1)
+    private Integer pipelineQueueSize = 100;
+
+    @NotNull
+    @Min(1)
+    private Integer processingThreads = 1;
+
+    @NotNull
+    @Min(1)
+    private Integer discoveryWindowSize = 10000;
+
+    @NotNull
+    @Min(1)
+    private Integer retryMaxAttempts = 5;
+
+    @NotNull
+    private Duration retryBaseDelay = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration retryMaxDelay = Duration.ofMinutes(1);
+
+    @NotNull
+    private String postedIndexFile = "";
+
+    @NotNull
+    private Duration postedIndexFreshness = Duration.ofHours(24);
+
+    @NotNull
+    private String checkpointFile = "";
+
+    @NotNull
+    @Min(1)
+    private Integer checkpointSyncBatch = 50;
+
+    @NotNull
+    @Min(1)
+    private Integer cacheMaxEntries = 10000;
+
+    @NotNull
+    private String cacheDirectory = "";
+
+    @NotNull
+    private Duration cacheTagsTtl = Duration.ofHours(1);
+
+    @NotNull
+    private Duration cacheTagPagesTtl = Duration.ofHours(1);
+
+    @NotNull
+    private Duration cacheGroupTopicsTtl = Duration.ofHours(1);
+
+    @NotNull
+    private Duration cacheGroupCapabilitiesTtl = Duration.ofHours(12);
+
     @NotNull
     private Set<Integer> excludedGroups = Collections.emptySet();
 
     @NotNull
     private Map<Integer, Set<Integer>> excludedGroupsTopics = Collections.emptyMap();
+
+    @NotNull
+    private String exclusionsFile = "";
+
+    @NotNull
+    private Duration exclusionsTtl = Duration.ofDays(7);
+
+    // access denied, access to the group denied, access to adding posts denied
+    @NotNull
+    private Set<Integer> exclusionErrorCodes = Set.of(15, 203, 214);
+
+    @Data
+    public static class Account {
+
+        @NotNull
+        private Integer userId;
+
+        @NotBlank
+        private String accessToken;
+    }
 }
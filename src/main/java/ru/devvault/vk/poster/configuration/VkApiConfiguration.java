@@ -1,28 +1,52 @@
 package ru.devvault.vk.poster.configuration;
 
+import com.google.gson.Gson;
 import com.vk.api.sdk.client.TransportClient;
 import com.vk.api.sdk.client.VkApiClient;
-import com.vk.api.sdk.httpclient.HttpTransportClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ru.devvault.vk.poster.captcha.CaptchaResolver;
+import ru.devvault.vk.poster.captcha.ConsoleCaptchaResolver;
+import ru.devvault.vk.poster.captcha.QueueCaptchaResolver;
+import ru.devvault.vk.poster.enums.CaptchaMode;
+import ru.devvault.vk.poster.server.LocalHttpServer;
+import ru.devvault.vk.poster.transport.PooledTransportClient;
 
+import java.io.IOException;
 import java.util.Scanner;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class VkApiConfiguration {
 
     @Bean
-    public TransportClient transportClient() {
-        return new HttpTransportClient();
+    public TransportClient transportClient(ClientProperties clientProperties) {
+        return new PooledTransportClient(clientProperties);
     }
 
     @Bean
-    public VkApiClient vkApiClient(TransportClient transportClient) {
-        return new VkApiClient(transportClient);
+    public VkApiClient vkApiClient(TransportClient transportClient, ClientProperties clientProperties) {
+        var apiEndpoint = clientProperties.getApiEndpoint();
+        if (apiEndpoint.isBlank()) return new VkApiClient(transportClient);
+
+        return new VkApiClient(transportClient) {
+            @Override
+            public String getApiEndpoint() {
+                return apiEndpoint;
+            }
+        };
     }
 
     @Bean
     public Scanner scanner() {
         return new Scanner(System.in);
     }
+
+    @Bean
+    public CaptchaResolver captchaResolver(ClientProperties clientProperties, Scanner scanner, Gson gson, LocalHttpServer localHttpServer) throws IOException {
+        if (clientProperties.getCaptchaMode() == CaptchaMode.HTTP) {
+            return new QueueCaptchaResolver(gson, localHttpServer, clientProperties.getCaptchaTimeout());
+        }
+
+        return new ConsoleCaptchaResolver(scanner);
+    }
 }
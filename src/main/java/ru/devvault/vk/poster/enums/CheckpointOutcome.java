@@ -0,0 +1,8 @@
+package ru.devvault.vk.poster.enums;
+
+public enum CheckpointOutcome {
+    POSTED,
+    EXISTS,
+    FAILED,
+    DONE
+}
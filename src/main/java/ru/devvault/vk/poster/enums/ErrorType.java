@@ -0,0 +1,29 @@
+package ru.devvault.vk.poster.enums;
+
+import java.util.Set;
+
+public enum ErrorType {
+    CAPTCHA,
+    AUTHORIZATION,
+    THROTTLING,
+    TRANSIENT,
+    PERMANENT;
+
+    private static final int CAPTCHA_ERROR_CODE = 14;
+    // user authorization failed, the token is revoked or expired
+    private static final int AUTHORIZATION_ERROR_CODE = 5;
+    // too many requests per second, flood control, rate limit reached
+    private static final Set<Integer> THROTTLING_ERROR_CODES = Set.of(6, 9, 29);
+    // unknown error, internal server error
+    private static final Set<Integer> TRANSIENT_ERROR_CODES = Set.of(1, 10);
+
+    public static ErrorType of(Integer code) {
+        if (code == null) return PERMANENT;
+        if (code == CAPTCHA_ERROR_CODE) return CAPTCHA;
+        if (code == AUTHORIZATION_ERROR_CODE) return AUTHORIZATION;
+        if (THROTTLING_ERROR_CODES.contains(code)) return THROTTLING;
+        if (TRANSIENT_ERROR_CODES.contains(code)) return TRANSIENT;
+
+        return PERMANENT;
+    }
+}
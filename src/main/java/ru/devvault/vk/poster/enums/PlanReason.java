@@ -0,0 +1,10 @@
+package ru.devvault.vk.poster.enums;
+
+public enum PlanReason {
+    MISSING,
+    EXISTS,
+    EXCLUDED,
+    RECENTLY_POSTED,
+    ALREADY_PROCESSED,
+    NOT_ALLOWED
+}
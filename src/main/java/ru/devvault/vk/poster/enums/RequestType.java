@@ -0,0 +1,6 @@
+package ru.devvault.vk.poster.enums;
+
+public enum RequestType {
+    READ,
+    WRITE
+}
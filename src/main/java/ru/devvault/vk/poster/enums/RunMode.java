@@ -0,0 +1,8 @@
+package ru.devvault.vk.poster.enums;
+
+public enum RunMode {
+    ONCE,
+    DAEMON,
+    PLAN,
+    EXECUTE_PLAN
+}
@@ -0,0 +1,23 @@
+package ru.devvault.vk.poster.error;
+
+import java.util.concurrent.CompletableFuture;
+
+// pipeline stages park their work on a captcha instead of waiting, the solution arrives through the future
+public class CaptchaDeferredException extends RuntimeException {
+    private final String captchaSid;
+    private final transient CompletableFuture<String> solution;
+
+    public CaptchaDeferredException(String captchaSid, CompletableFuture<String> solution) {
+        super("Captcha is waiting for solution, sid: " + captchaSid);
+        this.captchaSid = captchaSid;
+        this.solution = solution;
+    }
+
+    public String getCaptchaSid() {
+        return captchaSid;
+    }
+
+    public CompletableFuture<String> getSolution() {
+        return solution;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.devvault.vk.poster.error;
+
+import com.vk.api.sdk.exceptions.ClientException;
+
+// the response arrived but can't be read, repeating the request won't change that
+public class ResponseDecodeException extends ClientException {
+    public ResponseDecodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.devvault.vk.poster.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private double permitsPerSecond;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public synchronized double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public synchronized void setPermitsPerSecond(double permitsPerSecond) {
+        refill();
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    private void refill() {
+        var now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerSecond / NANOS_PER_SECOND);
+        refilledAt = now;
+    }
+
+    public void acquire() throws InterruptedException {
+        // reserve the permit under the lock, wait for it outside
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            tokens -= 1;
+            waitNanos = tokens < 0 ? (long) (-tokens / permitsPerSecond * NANOS_PER_SECOND) : 0;
+        }
+
+        if (waitNanos > 0) {
+            waiting.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+}
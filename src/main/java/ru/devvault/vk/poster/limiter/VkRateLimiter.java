@@ -0,0 +1,75 @@
+package ru.devvault.vk.poster.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.RequestType;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+public class VkRateLimiter {
+
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    private static final double THROTTLE_FACTOR = 0.5;
+    private static final double MIN_RATE_FACTOR = 0.1;
+    private static final double RECOVER_STEP_FACTOR = 0.05;
+
+    private final double readRate;
+    private final double writeRate;
+    private final TokenBucket readBucket;
+    private final TokenBucket writeBucket;
+
+    public VkRateLimiter(ClientProperties clientProperties) {
+        var readRate = clientProperties.getReadRequestsPerSecond();
+        if (isNull(readRate)) readRate = MILLIS_PER_SECOND / clientProperties.getQueryInterval();
+
+        var writeRate = clientProperties.getWriteRequestsPerSecond();
+        if (isNull(writeRate)) writeRate = MILLIS_PER_SECOND / (clientProperties.getQueryInterval() * 3L);
+
+        log.info("Request rate limits, reads: {}/s, writes: {}/s", readRate, writeRate);
+
+        this.readRate = readRate;
+        this.writeRate = writeRate;
+        readBucket = new TokenBucket(readRate);
+        writeBucket = new TokenBucket(writeRate);
+    }
+
+    private TokenBucket bucket(RequestType requestType) {
+        return requestType == RequestType.WRITE ? writeBucket : readBucket;
+    }
+
+    public double getConfiguredRate(RequestType requestType) {
+        return requestType == RequestType.WRITE ? writeRate : readRate;
+    }
+
+    public void acquire(RequestType requestType) throws InterruptedException {
+        bucket(requestType).acquire();
+    }
+
+    public int getWaiting(RequestType requestType) {
+        return bucket(requestType).getWaiting();
+    }
+
+    public double getRate(RequestType requestType) {
+        return bucket(requestType).getPermitsPerSecond();
+    }
+
+    public void throttle(RequestType requestType) {
+        var bucket = bucket(requestType);
+        synchronized (bucket) {
+            var rate = Math.max(getConfiguredRate(requestType) * MIN_RATE_FACTOR, bucket.getPermitsPerSecond() * THROTTLE_FACTOR);
+            bucket.setPermitsPerSecond(rate);
+            log.warn("Request rate throttled, {}: {}/s", requestType, rate);
+        }
+    }
+
+    public void recover(RequestType requestType) {
+        var bucket = bucket(requestType);
+        var configured = getConfiguredRate(requestType);
+        synchronized (bucket) {
+            if (bucket.getPermitsPerSecond() < configured) {
+                bucket.setPermitsPerSecond(Math.min(configured, bucket.getPermitsPerSecond() + configured * RECOVER_STEP_FACTOR));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.devvault.vk.poster.matcher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.model.TextItem;
+
+import java.util.*;
+
+import static java.util.Objects.isNull;
+
+// Aho-Corasick automaton over the message queries, finds any of them in one pass over a text
+@Slf4j
+@Component
+public class MessageMatcher {
+
+    private static final int NONE = -1;
+
+    private final List<String> queries;
+    // per state: sorted edge code points with their target states
+    private final int[][] edgeCodePoints;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // query ending at the state or at one of its suffixes
+    private final int[] output;
+
+    public MessageMatcher(ClientProperties clientProperties) {
+        var variants = new LinkedHashSet<String>();
+        if (!clientProperties.getPostMessageQuery().isBlank()) {
+            variants.add(clientProperties.getPostMessageQuery());
+        }
+        clientProperties.getPostMessageQueries().stream()
+                .filter(query -> !query.isBlank())
+                .forEach(variants::add);
+
+        queries = List.copyOf(variants);
+        if (queries.stream().allMatch(query -> normalize(query).isEmpty())) {
+            throw new IllegalStateException("postMessageQuery or postMessageQueries must contain letters or digits");
+        }
+
+        // trie
+        var trie = new ArrayList<TreeMap<Integer, Integer>>();
+        var outputs = new ArrayList<Integer>();
+        trie.add(new TreeMap<>());
+        outputs.add(NONE);
+        for (var i = 0; i < queries.size(); i++) {
+            var normalized = normalize(queries.get(i));
+            if (normalized.isEmpty()) continue;
+
+            var state = 0;
+            for (var codePoint : normalized.codePoints().toArray()) {
+                var next = trie.get(state).get(codePoint);
+                if (isNull(next)) {
+                    next = trie.size();
+                    trie.get(state).put(codePoint, next);
+                    trie.add(new TreeMap<>());
+                    outputs.add(NONE);
+                }
+                state = next;
+            }
+            if (outputs.get(state) == NONE) outputs.set(state, i);
+        }
+
+        var states = trie.size();
+        edgeCodePoints = new int[states][];
+        edgeTargets = new int[states][];
+        fail = new int[states];
+        output = new int[states];
+        for (var state = 0; state < states; state++) {
+            edgeCodePoints[state] = trie.get(state).keySet().stream().mapToInt(Integer::intValue).toArray();
+            edgeTargets[state] = trie.get(state).values().stream().mapToInt(Integer::intValue).toArray();
+            output[state] = outputs.get(state);
+        }
+
+        // failure links breadth-first, so shorter suffix states are linked first
+        var queue = new ArrayDeque<Integer>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            for (var i = 0; i < edgeTargets[state].length; i++) {
+                var child = edgeTargets[state][i];
+                queue.add(child);
+                if (state == 0) continue;
+
+                var codePoint = edgeCodePoints[state][i];
+                var link = fail[state];
+                while (link != 0 && next(link, codePoint) == NONE) {
+                    link = fail[link];
+                }
+                var target = next(link, codePoint);
+                fail[child] = target == NONE ? 0 : target;
+                if (output[child] == NONE) output[child] = output[fail[child]];
+            }
+        }
+
+        log.info("Message queries: {}, matcher states: {}", queries.size(), states);
+    }
+
+    // letters and digits only, lower case, so spacing, punctuation and emoji do not matter
+    public static String normalize(String text) {
+        var builder = new StringBuilder(text.length());
+        text.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(MessageMatcher::fold)
+                .forEach(builder::appendCodePoint);
+
+        return builder.toString();
+    }
+
+    private static int fold(int codePoint) {
+        var lower = Character.toLowerCase(codePoint);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    private int next(int state, int codePoint) {
+        var index = Arrays.binarySearch(edgeCodePoints[state], codePoint);
+        return index < 0 ? NONE : edgeTargets[state][index];
+    }
+
+    public List<String> getQueries() {
+        return queries;
+    }
+
+    // index of the first query found in the text
+    public OptionalInt match(String text) {
+        if (isNull(text)) return OptionalInt.empty();
+
+        var state = 0;
+        for (var i = 0; i < text.length(); ) {
+            var codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetterOrDigit(codePoint)) continue;
+
+            codePoint = fold(codePoint);
+            var next = next(state, codePoint);
+            while (next == NONE && state != 0) {
+                state = fail[state];
+                next = next(state, codePoint);
+            }
+            state = next == NONE ? 0 : next;
+
+            if (output[state] != NONE) return OptionalInt.of(output[state]);
+        }
+
+        return OptionalInt.empty();
+    }
+
+    // first item containing any of the queries
+    public Optional<TextItem> find(List<TextItem> items) {
+        for (var item : items) {
+            var variant = match(item.getText());
+            if (variant.isPresent()) {
+                log.debug("Message variant found: {}, item: {}", queries.get(variant.getAsInt()), item.getId());
+                return Optional.of(item);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.devvault.vk.poster.metrics;
+
+import com.google.gson.Gson;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.server.LocalHttpServer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// nothing depends on the reporter, it has to start even with lazy initialization
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class MetricsReporter {
+
+    public static final String PATH = "/metrics";
+
+    private final ClientProperties clientProperties;
+    private final MeterRegistry registry;
+    private final LocalHttpServer localHttpServer;
+    private final Gson gson;
+
+    private ScheduledExecutorService dumpExecutor;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (Boolean.TRUE.equals(clientProperties.getMetricsEndpoint()) && registry instanceof PrometheusMeterRegistry) {
+            var prometheusRegistry = (PrometheusMeterRegistry) registry;
+            localHttpServer.register(PATH, exchange -> LocalHttpServer.respond(
+                    exchange, 200, "text/plain; version=0.0.4; charset=utf-8", prometheusRegistry.scrape()));
+        }
+
+        if (!clientProperties.getMetricsDumpFile().isBlank()) {
+            var interval = clientProperties.getMetricsDumpInterval().toMillis();
+            dumpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumpExecutor.scheduleWithFixedDelay(this::dump, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dumpExecutor == null) return;
+
+        dumpExecutor.shutdownNow();
+        dump();
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        return registry.getMeters().stream()
+                .map(meter -> {
+                    var item = new LinkedHashMap<String, Object>();
+                    item.put("name", meter.getId().getName());
+                    item.put("tags", meter.getId().getTags().stream()
+                            .collect(Collectors.toMap(Tag::getKey, Tag::getValue)));
+                    var measurements = new LinkedHashMap<String, Double>();
+                    // gson rejects NaN, which gauges report for collected objects
+                    meter.measure().forEach(measurement -> {
+                        if (Double.isFinite(measurement.getValue())) {
+                            measurements.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+                        }
+                    });
+                    item.put("measurements", measurements);
+                    return item;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void dump() {
+        try {
+            var path = Path.of(clientProperties.getMetricsDumpFile());
+            var temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, gson.toJson(snapshot()), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.error("Metrics dump error: {}", e.getMessage());
+        }
+    }
+}
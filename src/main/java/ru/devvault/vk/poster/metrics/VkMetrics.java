@@ -0,0 +1,58 @@
+package ru.devvault.vk.poster.metrics;
+
+import io.micrometer.core.instrument.*;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.cache.ResponseCache;
+import ru.devvault.vk.poster.enums.RequestType;
+import ru.devvault.vk.poster.limiter.VkRateLimiter;
+
+import java.util.Locale;
+
+@Component
+public class VkMetrics {
+
+    public static final String SUCCESS = "0";
+    public static final String CLIENT_ERROR = "client";
+
+    private final MeterRegistry registry;
+
+    public VkMetrics(MeterRegistry registry, ResponseCache responseCache) {
+        this.registry = registry;
+
+        FunctionCounter.builder("vk.cache.hits", responseCache, ResponseCache::getHits).register(registry);
+        FunctionCounter.builder("vk.cache.misses", responseCache, ResponseCache::getMisses).register(registry);
+    }
+
+    public void bindRateLimiter(Integer accountId, VkRateLimiter rateLimiter) {
+        for (var requestType : RequestType.values()) {
+            var type = requestType.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("vk.limiter.waiting", rateLimiter, limiter -> limiter.getWaiting(requestType))
+                    .description("Requests waiting for a rate limiter permit")
+                    .tag("account", String.valueOf(accountId))
+                    .tag("type", type)
+                    .register(registry);
+            Gauge.builder("vk.limiter.rate", rateLimiter, limiter -> limiter.getRate(requestType))
+                    .description("Current allowed requests per second")
+                    .tag("account", String.valueOf(accountId))
+                    .tag("type", type)
+                    .register(registry);
+        }
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String method, String errorCode) {
+        sample.stop(Timer.builder("vk.requests")
+                .description("VK API request latency")
+                .tag("method", method)
+                .tag("error_code", errorCode)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public void posted(String target) {
+        registry.counter("vk.posts", "target", target).increment();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.devvault.vk.poster.model;
+
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Value
+public class BatchCall {
+    String method;
+    Map<String, Object> params;
+
+    public static BatchCall of(String method) {
+        return new BatchCall(method, new LinkedHashMap<>());
+    }
+
+    public BatchCall param(String name, Object value) {
+        params.put(name, value);
+        return this;
+    }
+}
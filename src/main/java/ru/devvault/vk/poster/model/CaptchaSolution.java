@@ -0,0 +1,9 @@
+package ru.devvault.vk.poster.model;
+
+import lombok.Value;
+
+@Value
+public class CaptchaSolution {
+    String sid;
+    String key;
+}
@@ -0,0 +1,37 @@
+package ru.devvault.vk.poster.model;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Data;
+
+import static java.util.Objects.isNull;
+
+// what the account may do in a group, unknown fields allow everything
+@Data
+public class GroupCapability {
+    private static final int WALL_DISABLED = 0;
+
+    private Integer id;
+
+    private String deactivated;
+
+    @SerializedName("can_post")
+    private Integer canPost;
+
+    @SerializedName("can_suggest")
+    private Integer canSuggest;
+
+    private Integer wall;
+
+    public boolean canPostToWall() {
+        if (!isNull(deactivated) || (!isNull(wall) && wall == WALL_DISABLED)) return false;
+        if (isNull(canPost) && isNull(canSuggest)) return true;
+
+        // posts of non-admins to a wall with suggestions land in suggests
+        return (!isNull(canPost) && canPost == 1) || (!isNull(canSuggest) && canSuggest == 1);
+    }
+
+    // whether there are topics is only known from board.getTopics, groups.getById returns counters for a single group
+    public boolean isActive() {
+        return isNull(deactivated);
+    }
+}
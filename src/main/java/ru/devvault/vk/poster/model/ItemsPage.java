@@ -0,0 +1,11 @@
+package ru.devvault.vk.poster.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ItemsPage<T> {
+    Integer count;
+    List<T> items;
+}
@@ -0,0 +1,16 @@
+package ru.devvault.vk.poster.model;
+
+import lombok.Value;
+import ru.devvault.vk.poster.enums.PlanAction;
+import ru.devvault.vk.poster.enums.PlanReason;
+
+@Value
+public class PlanEntry {
+    int tagId;
+    int groupIndex;
+    int groupId;
+    int topicId;
+    int accountId;
+    PlanAction action;
+    PlanReason reason;
+}
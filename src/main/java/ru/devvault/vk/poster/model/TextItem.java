@@ -0,0 +1,17 @@
+package ru.devvault.vk.poster.model;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Data;
+
+@Data
+public class TextItem {
+    private Integer id;
+
+    @SerializedName("from_id")
+    private Integer fromId;
+
+    private String text;
+
+    // unix time in seconds
+    private Integer date;
+}
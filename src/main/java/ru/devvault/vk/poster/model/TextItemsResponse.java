@@ -0,0 +1,13 @@
+package ru.devvault.vk.poster.model;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.List;
+
+@Data
+public class TextItemsResponse {
+    private Integer count;
+
+    private List<TextItem> items = Collections.emptyList();
+}
@@ -0,0 +1,74 @@
+package ru.devvault.vk.poster.pipeline;
+
+import lombok.Value;
+import ru.devvault.vk.poster.error.CaptchaDeferredException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// work of a stage that waits for a captcha solution, the stage keeps draining its queue meanwhile
+public class CaptchaParking<T> {
+
+    private static final long POLL_INTERVAL_MILLIS = 500;
+
+    @Value
+    public static class Parked<T> {
+        T work;
+        String captchaSid;
+        CompletableFuture<String> solution;
+
+        // empty while the captcha is pending and when it timed out
+        public Optional<String> captchaKey() {
+            return solution.isDone() && !solution.isCompletedExceptionally()
+                    ? Optional.ofNullable(solution.getNow(null))
+                    : Optional.empty();
+        }
+    }
+
+    private final List<Parked<T>> parked = new ArrayList<>();
+
+    public void park(T work, CaptchaDeferredException captcha) {
+        parked.add(new Parked<>(work, captcha.getCaptchaSid(), captcha.getSolution()));
+    }
+
+    public boolean isEmpty() {
+        return parked.isEmpty();
+    }
+
+    // while work is parked the queue is polled, so a solution doesn't wait for the next item to arrive
+    public T next(BlockingQueue<T> queue) throws InterruptedException {
+        return parked.isEmpty() ? queue.take() : queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // removes the work whose captchas were solved or timed out, optionally waiting for the first of them
+    public List<Parked<T>> settled(boolean wait) throws InterruptedException {
+        if (wait && !parked.isEmpty()) {
+            try {
+                CompletableFuture.anyOf(parked.stream().map(Parked::getSolution).toArray(CompletableFuture[]::new)).get();
+            } catch (ExecutionException e) {
+                // a timed out captcha settles its work as well
+            }
+        }
+
+        var settled = parked.stream()
+                .filter(work -> work.getSolution().isDone())
+                .collect(Collectors.toList());
+        parked.removeAll(settled);
+
+        return settled;
+    }
+
+    // removes all the work, solved or not
+    public List<Parked<T>> drain() {
+        var drained = new ArrayList<>(parked);
+        parked.clear();
+
+        return drained;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.devvault.vk.poster.pipeline;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// counts outstanding work of a group or tag across stages, runs onSuccess once everything succeeded
+public class Completion {
+
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicBoolean failed = new AtomicBoolean();
+    private final Runnable onSuccess;
+    private final Completion parent;
+
+    public Completion(Runnable onSuccess, Completion parent) {
+        this.onSuccess = onSuccess;
+        this.parent = parent;
+        if (parent != null) parent.hold();
+    }
+
+    public void hold() {
+        pending.incrementAndGet();
+    }
+
+    public void release(boolean success) {
+        if (!success) failed.set(true);
+
+        if (pending.decrementAndGet() == 0) {
+            if (!failed.get()) onSuccess.run();
+            if (parent != null) parent.release(!failed.get());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.devvault.vk.poster.pipeline;
+
+import com.vk.api.sdk.objects.fave.Tag;
+import com.vk.api.sdk.objects.groups.GroupFull;
+import lombok.Value;
+
+// a group found under the configured tags, waiting for its turn in discovery
+@Value
+public class GroupCandidate {
+    // the first tag the group was found under, its checkpoints are kept there
+    Tag tag;
+    int groupIndex;
+    GroupFull group;
+    Completion tagCompletion;
+}
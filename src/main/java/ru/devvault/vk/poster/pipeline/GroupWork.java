@@ -0,0 +1,31 @@
+package ru.devvault.vk.poster.pipeline;
+
+import com.vk.api.sdk.objects.board.Topic;
+import com.vk.api.sdk.objects.fave.Tag;
+import com.vk.api.sdk.objects.groups.GroupFull;
+import lombok.Value;
+import ru.devvault.vk.poster.model.GroupCapability;
+import ru.devvault.vk.poster.model.TextItem;
+import ru.devvault.vk.poster.service.RequestContext;
+import ru.devvault.vk.poster.store.PlanFile;
+
+import java.util.List;
+
+// a discovered group with the lists its duplicate check needs
+@Value
+public class GroupWork {
+
+    public static final GroupWork END = new GroupWork(null, null, 0, null, null, null, null, null, null, null);
+
+    RequestContext context;
+    Tag tag;
+    int groupIndex;
+    GroupFull group;
+    GroupCapability capability;
+    List<Topic> topics;
+    List<TextItem> suggests;
+    List<TextItem> posts;
+    Completion completion;
+    // set when planning, decisions go to the plan instead of the API
+    PlanFile plan;
+}
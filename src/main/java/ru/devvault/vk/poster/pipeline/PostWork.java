@@ -0,0 +1,14 @@
+package ru.devvault.vk.poster.pipeline;
+
+import com.vk.api.sdk.objects.board.Topic;
+import lombok.Value;
+
+// a post the duplicate check found missing, topic is null for the group wall
+@Value
+public class PostWork {
+
+    public static final PostWork END = new PostWork(null, null);
+
+    GroupWork groupWork;
+    Topic topic;
+}
@@ -0,0 +1,54 @@
+package ru.devvault.vk.poster.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Component
+public class LocalHttpServer {
+
+    private final InetSocketAddress address;
+
+    private HttpServer server;
+
+    public LocalHttpServer(ClientProperties clientProperties) {
+        this.address = new InetSocketAddress(clientProperties.getLocalServerHost(), clientProperties.getLocalServerPort());
+    }
+
+    public static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (var stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+
+    public synchronized void register(String path, HttpHandler handler) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(address, 0);
+            server.start();
+            log.info("Local HTTP server started on {}", address);
+        }
+
+        server.createContext(path, handler);
+        log.info("Local HTTP endpoint: http://{}:{}{}", address.getHostString(), address.getPort(), path);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (server == null) return;
+
+        server.stop(0);
+        server = null;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.devvault.vk.poster.service;
+
+import ru.devvault.vk.poster.model.ItemsPage;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.isNull;
+
+public class PagedIterator<T> implements Iterator<T> {
+
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        ItemsPage<T> load(int offset, int count);
+    }
+
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private final Executor executor;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<ItemsPage<T>> next;
+    private int offset;
+    private boolean failed;
+
+    public PagedIterator(PageLoader<T> loader, int offset, int pageSize, Executor executor) {
+        this.loader = loader;
+        this.offset = offset;
+        this.pageSize = pageSize;
+        this.executor = executor;
+        this.next = fetch(offset);
+    }
+
+    public static <T> Stream<T> stream(PageLoader<T> loader, int offset, int pageSize, Executor executor) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(new PagedIterator<>(loader, offset, pageSize, executor), Spliterator.ORDERED),
+                false
+        );
+    }
+
+    private CompletableFuture<ItemsPage<T>> fetch(int pageOffset) {
+        return CompletableFuture.supplyAsync(() -> loader.load(pageOffset, pageSize), executor);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (isNull(next)) return false;
+
+            var page = next.join();
+            next = null;
+            // loaders return null on errors, which ends the iteration as well
+            failed = isNull(page);
+            if (failed || isNull(page.getItems()) || page.getItems().isEmpty()) return false;
+
+            offset += page.getItems().size();
+            if (isNull(page.getCount()) || offset < page.getCount()) {
+                // the next page is loaded while the current one is being processed
+                next = fetch(offset);
+            }
+
+            current = page.getItems().iterator();
+        }
+
+        return true;
+    }
+
+    // tells a page that failed to load apart from the end of the data
+    public boolean failed() {
+        return failed;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        return current.next();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.devvault.vk.poster.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PosterScheduler {
+
+    private final ClientProperties clientProperties;
+    private final PosterService posterService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean resume = new AtomicBoolean();
+    private ThreadPoolTaskScheduler scheduler;
+
+    public synchronized void start(boolean resumeFirstCycle) {
+        resume.set(resumeFirstCycle);
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("poster-cycle-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds((int) clientProperties.getShutdownTimeout().toSeconds());
+        scheduler.initialize();
+
+        if (clientProperties.getScheduleCron().isBlank()) {
+            log.info("Daemon started, cycle delay: {}", clientProperties.getScheduleFixedDelay());
+            scheduler.scheduleWithFixedDelay(this::runCycle, clientProperties.getScheduleFixedDelay());
+        } else {
+            log.info("Daemon started, cycle schedule: {}", clientProperties.getScheduleCron());
+            scheduler.schedule(this::runCycle, new CronTrigger(clientProperties.getScheduleCron()));
+        }
+    }
+
+    private void runCycle() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous posting cycle is still running, skipping");
+            return;
+        }
+
+        try {
+            log.info("Posting cycle started");
+            var result = posterService.process(resume.getAndSet(false));
+            log.info("Posting cycle finished with code {}", result);
+        } catch (InterruptedException e) {
+            log.error("Posting cycle interrupted: {}", e.getMessage());
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Posting cycle error: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler == null) return;
+
+        log.info("Stopping daemon, waiting for the current cycle to finish");
+        posterService.stop();
+        scheduler.shutdown();
+        scheduler = null;
+    }
+}
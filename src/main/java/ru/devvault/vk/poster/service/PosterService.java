@@ -1,18 +1,42 @@
 package ru.devvault.vk.poster.service;
 
 import com.vk.api.sdk.objects.board.Topic;
-import com.vk.api.sdk.objects.board.TopicComment;
 import com.vk.api.sdk.objects.fave.Tag;
 import com.vk.api.sdk.objects.groups.GroupFull;
 import com.vk.api.sdk.objects.wall.GetFilter;
-import com.vk.api.sdk.objects.wall.WallpostFull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.devvault.vk.poster.account.AccountRing;
+import ru.devvault.vk.poster.account.VkAccount;
+import ru.devvault.vk.poster.cache.ResponseCache;
 import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.CheckpointOutcome;
+import ru.devvault.vk.poster.enums.DuplicateCheckMode;
+import ru.devvault.vk.poster.enums.PlanAction;
+import ru.devvault.vk.poster.enums.PlanReason;
+import ru.devvault.vk.poster.enums.RequestType;
+import ru.devvault.vk.poster.error.CaptchaDeferredException;
+import ru.devvault.vk.poster.matcher.MessageMatcher;
+import ru.devvault.vk.poster.model.GroupCapability;
+import ru.devvault.vk.poster.model.PlanEntry;
+import ru.devvault.vk.poster.model.TextItem;
+import ru.devvault.vk.poster.pipeline.CaptchaParking;
+import ru.devvault.vk.poster.pipeline.Completion;
+import ru.devvault.vk.poster.pipeline.GroupCandidate;
+import ru.devvault.vk.poster.pipeline.GroupWork;
+import ru.devvault.vk.poster.pipeline.PostWork;
+import ru.devvault.vk.poster.store.CheckpointJournal;
+import ru.devvault.vk.poster.store.ExclusionStore;
+import ru.devvault.vk.poster.store.PlanFile;
+import ru.devvault.vk.poster.store.PostedIndex;
 
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.lang.Boolean.FALSE;
@@ -25,9 +49,32 @@ public class PosterService {
 
     private final ClientProperties clientProperties;
     private final VkService vkService;
+    private final PostedIndex postedIndex;
+    private final CheckpointJournal checkpointJournal;
+    private final ResponseCache responseCache;
+    private final MessageMatcher messageMatcher;
+    private final ExclusionStore exclusionStore;
 
-    public Boolean authorizeClient() {
-        var authResult = FALSE;
+    private volatile AccountRing accountRing;
+    private volatile boolean stopping;
+
+    private List<VkAccount> authorizeAccounts() {
+        var accounts = new ArrayList<VkAccount>();
+        for (var account : clientProperties.getAccounts()) {
+            log.info("Trying to authorize account {} by access token", account.getUserId());
+            vkService.authorize(
+                    clientProperties.getAppId(),
+                    clientProperties.getRedirectUri(),
+                    account.getUserId(),
+                    account.getAccessToken()
+            ).ifPresent(accounts::add);
+        }
+
+        return accounts;
+    }
+
+    public Optional<VkAccount> authorizeClient() {
+        var authResult = Optional.<VkAccount>empty();
         switch (clientProperties.getAuthType()) {
             case CODE_FLOW:
                 log.info("Trying to authorize by code flow");
@@ -54,106 +101,704 @@ public class PosterService {
         return authResult;
     }
 
-    private Optional<TopicComment> queryComment(GroupFull group, Topic topic) {
-        return vkService.getTopicComments(group, topic).stream()
-                .filter(i -> i.getText().contains(clientProperties.getPostMessageQuery()))
-                .findAny();
+    private void addToPlan(GroupWork work, int topicId, PlanReason reason) {
+        if (isNull(work.getPlan())) return;
+
+        work.getPlan().add(new PlanEntry(
+                work.getTag().getId(),
+                work.getGroupIndex(),
+                work.getGroup().getId(),
+                topicId,
+                work.getContext().getAccount().getId(),
+                reason == PlanReason.MISSING ? PlanAction.POST : PlanAction.SKIP,
+                reason
+        ));
     }
 
-    private void sendTopicComments(GroupFull group) throws InterruptedException {
-        if (FALSE.equals(clientProperties.getPostToGroupsTopics())) return;
+    // a found message may be old, its own date keeps the freshness and priorities honest
+    private void recordFound(int groupId, int topicId, TextItem item) {
+        var postedAt = isNull(item.getDate()) ? System.currentTimeMillis() : TimeUnit.SECONDS.toMillis(item.getDate());
+        postedIndex.record(groupId, topicId, clientProperties.getPostMessage(), item.getId(), postedAt);
+    }
 
-        var excludedTopics = clientProperties.getExcludedGroupsTopics().get(group.getId());
-        for (var topic : vkService.getGroupTopics(group)) {
-            if (isNull(excludedTopics) || !excludedTopics.contains(topic.getId())) {
+    private void checkTopics(GroupWork work, BlockingQueue<PostWork> writes) throws InterruptedException {
+        if (FALSE.equals(clientProperties.getPostToGroupsTopics()) || !work.getCapability().isActive()) return;
 
-                log.info("Selected topic: {}", topic);
+        var tag = work.getTag();
+        var group = work.getGroup();
+        var selectedTopics = new ArrayList<Topic>();
+        for (var topic : work.getTopics()) {
+            if (checkpointJournal.isDone(tag.getId(), group.getId(), topic.getId())) {
+                log.info("Topic already processed! Group: {}, topic: {}", group, topic);
+                addToPlan(work, topic.getId(), PlanReason.ALREADY_PROCESSED);
+            } else if (exclusionStore.isExcluded(group.getId(), topic.getId())) {
+                log.info("Processing topic excluded! Group: {}, topic: {}", group, topic);
+                addToPlan(work, topic.getId(), PlanReason.EXCLUDED);
+            } else if (postedIndex.isFresh(group.getId(), topic.getId(), clientProperties.getPostMessage())) {
+                log.info("Topic comment recently posted! Group: {}, topic: {}", group, topic);
+                addToPlan(work, topic.getId(), PlanReason.RECENTLY_POSTED);
+            } else {
+                selectedTopics.add(topic);
+            }
+        }
 
-                var comment = queryComment(group, topic);
+        if (selectedTopics.isEmpty()) return;
 
-                if (comment.isEmpty()) {
-                    if (vkService.createTopicComment(group, topic, clientProperties.getPostMessage()) > 0) {
-                        log.info("Topic comment posted! Group: {}, topic: {}", group, topic);
-                    } else {
-                        log.error("Topic comment is not created! Group: {}, topic: {}", group, topic);
-                    }
-                } else {
-                    log.info("Topic comment already exists! Group: {}, topic: {}, comment: {}", group, topic, comment);
-                }
+        var topicsComments = vkService.getTopicsComments(work.getContext(), group, selectedTopics);
+        for (var topic : selectedTopics) {
+            log.info("Selected topic: {}", topic);
 
-                Thread.sleep(clientProperties.getQueryInterval() * 3L);
+            var comment = messageMatcher.find(topicsComments.getOrDefault(topic.getId(), Collections.emptyList()));
+            if (comment.isEmpty()) {
+                work.getCompletion().hold();
+                writes.put(new PostWork(work, topic));
             } else {
-                log.info("Processing topic excluded! Group: {}, topic: {}", group, topic);
+                recordFound(group.getId(), topic.getId(), comment.get());
+                checkpointJournal.record(tag.getId(), work.getGroupIndex(), group.getId(), topic.getId(), CheckpointOutcome.EXISTS);
+                addToPlan(work, topic.getId(), PlanReason.EXISTS);
+                log.info("Topic comment already exists! Group: {}, topic: {}, comment: {}", group, topic, comment);
             }
-
-            Thread.sleep(clientProperties.getQueryInterval());
         }
     }
 
-    private Optional<WallpostFull> queryWallPost(GroupFull group, GetFilter filter) {
-        return vkService.getGroupWallPosts(group, filter).stream()
-                .filter(i -> i.getText().contains(clientProperties.getPostMessageQuery()))
-                .findAny();
-    }
-
-    private void sendGroupMessage(GroupFull group) throws InterruptedException {
+    private void checkWall(GroupWork work, BlockingQueue<PostWork> writes) throws InterruptedException {
         if (FALSE.equals(clientProperties.getPostToGroups())) return;
 
-        if (!clientProperties.getExcludedGroups().contains(group.getId())) {
-            var post = queryWallPost(group, GetFilter.SUGGESTS);
+        if (!work.getCapability().canPostToWall()) {
+            log.info("Group wall is closed for posts! Group: {}", work.getGroup());
+            addToPlan(work, PostedIndex.WALL_TOPIC_ID, PlanReason.NOT_ALLOWED);
+            return;
+        }
+
+        var tag = work.getTag();
+        var group = work.getGroup();
+        if (checkpointJournal.isDone(tag.getId(), group.getId(), PostedIndex.WALL_TOPIC_ID)) {
+            log.info("Group wall already processed! Group: {}", group);
+            addToPlan(work, PostedIndex.WALL_TOPIC_ID, PlanReason.ALREADY_PROCESSED);
+        } else if (exclusionStore.isExcluded(group.getId(), PostedIndex.WALL_TOPIC_ID)) {
+            log.info("Processing group excluded! Group: {}", group);
+            addToPlan(work, PostedIndex.WALL_TOPIC_ID, PlanReason.EXCLUDED);
+        } else if (postedIndex.isFresh(group.getId(), PostedIndex.WALL_TOPIC_ID, clientProperties.getPostMessage())) {
+            log.info("Post recently created! Group: {}", group);
+            addToPlan(work, PostedIndex.WALL_TOPIC_ID, PlanReason.RECENTLY_POSTED);
+        } else {
+            var post = messageMatcher.find(work.getSuggests());
 
             if (post.isEmpty()) {
-                post = queryWallPost(group, GetFilter.ALL);
+                post = messageMatcher.find(work.getPosts());
             }
 
             if (post.isEmpty()) {
-                if (vkService.createWallPost(group, clientProperties.getPostMessage()).getPostId() > 0) {
-                    log.info("Group message posted! Group: {}", group);
-                } else {
-                    log.error("Post is not created! Group: {}", group);
-                }
+                work.getCompletion().hold();
+                writes.put(new PostWork(work, null));
             } else {
+                recordFound(group.getId(), PostedIndex.WALL_TOPIC_ID, post.get());
+                checkpointJournal.record(tag.getId(), work.getGroupIndex(), group.getId(), PostedIndex.WALL_TOPIC_ID, CheckpointOutcome.EXISTS);
+                addToPlan(work, PostedIndex.WALL_TOPIC_ID, PlanReason.EXISTS);
                 log.info("Post already exists! Group: {}, post: {}", group, post);
             }
+        }
+    }
 
-            Thread.sleep(clientProperties.getQueryInterval() * 3L);
+    private boolean write(PostWork post) {
+        var work = post.getGroupWork();
+        var group = work.getGroup();
+        var topic = post.getTopic();
+        var topicId = isNull(topic) ? PostedIndex.WALL_TOPIC_ID : topic.getId();
+
+        var postId = isNull(topic)
+                ? vkService.createWallPost(work.getContext(), group, clientProperties.getPostMessage()).getPostId()
+                : vkService.createTopicComment(work.getContext(), group, topic, clientProperties.getPostMessage());
+
+        var outcome = CheckpointOutcome.FAILED;
+        if (postId > 0) {
+            postedIndex.record(group.getId(), topicId, clientProperties.getPostMessage(), postId);
+            outcome = CheckpointOutcome.POSTED;
+            log.info("Message posted! Group: {}, topic: {}", group, topic);
         } else {
-            log.info("Processing group excluded! Group: {}", group);
+            log.error("Message is not created! Group: {}, topic: {}", group, topic);
+        }
+
+        checkpointJournal.record(work.getTag().getId(), work.getGroupIndex(), group.getId(), topicId, outcome);
+        return outcome == CheckpointOutcome.POSTED;
+    }
+
+    // dedup stage: runs with processingThreads concurrency, feeds the writer
+    private Void checkGroups(BlockingQueue<GroupWork> groups, BlockingQueue<PostWork> writes) throws InterruptedException {
+        vkService.deferCaptchas(true);
+        var parking = new CaptchaParking<GroupWork>();
+        var ended = false;
+        while (!ended || !parking.isEmpty()) {
+            for (var parked : stopping ? parking.drain() : parking.settled(ended)) {
+                checkGroup(parked.getWork(), writes, parking, parked);
+            }
+            if (ended) continue;
+
+            var work = parking.next(groups);
+            if (work == GroupWork.END) {
+                ended = true;
+            } else if (!isNull(work)) {
+                checkGroup(work, writes, parking, null);
+            }
+        }
+
+        return null;
+    }
+
+    private void checkGroup(GroupWork work, BlockingQueue<PostWork> writes,
+                            CaptchaParking<GroupWork> parking, CaptchaParking.Parked<GroupWork> retry) throws InterruptedException {
+        var success = false;
+        var parked = false;
+        try {
+            if (!isNull(retry)) {
+                if (stopping || retry.captchaKey().isEmpty()) {
+                    log.warn("Captcha is not solved, the group is deferred to the next run! Group: {}", work.getGroup());
+                    return;
+                }
+                vkService.useCaptchaSolution(retry.getCaptchaSid(), retry.captchaKey().get());
+            }
+
+            log.info("Selected group: {}, account: {}", work.getGroup(), work.getContext().getAccount().getId());
+            checkTopics(work, writes);
+            checkWall(work, writes);
+            success = true;
+        } catch (CaptchaDeferredException e) {
+            // the reads are repeated once the captcha is solved, nothing was queued for the writer before them
+            log.warn("Group parked until the captcha is solved! Group: {}, sid: {}", work.getGroup(), e.getCaptchaSid());
+            parking.park(work, e);
+            parked = true;
+        } catch (RuntimeException e) {
+            log.error("Group processing error! Group: {}, error: {}", work.getGroup(), e.getMessage());
+        } finally {
+            vkService.clearCaptchaSolution();
+            if (!parked) work.getCompletion().release(success);
+        }
+    }
+
+    // write stage: a single writer, paced by the accounts' write limiters
+    private Void writePosts(BlockingQueue<PostWork> writes) throws InterruptedException {
+        vkService.deferCaptchas(true);
+        var parking = new CaptchaParking<PostWork>();
+        var ended = false;
+        while (!ended || !parking.isEmpty()) {
+            for (var parked : stopping ? parking.drain() : parking.settled(ended)) {
+                writePost(parked.getWork(), parking, parked);
+            }
+            if (ended) continue;
+
+            var post = parking.next(writes);
+            if (post == PostWork.END) {
+                ended = true;
+            } else if (!isNull(post)) {
+                writePost(post, parking, null);
+            }
+        }
+
+        return null;
+    }
+
+    private void writePost(PostWork post, CaptchaParking<PostWork> parking, CaptchaParking.Parked<PostWork> retry) {
+        var success = false;
+        var parked = false;
+        try {
+            if (!isNull(post.getGroupWork().getPlan())) {
+                addToPlan(post.getGroupWork(), isNull(post.getTopic()) ? PostedIndex.WALL_TOPIC_ID : post.getTopic().getId(), PlanReason.MISSING);
+                success = true;
+                return;
+            }
+
+            if (!isNull(retry)) {
+                if (stopping || retry.captchaKey().isEmpty()) {
+                    log.warn("Captcha is not solved, the post is deferred to the next run! Group: {}, topic: {}", post.getGroupWork().getGroup(), post.getTopic());
+                    return;
+                }
+                vkService.useCaptchaSolution(retry.getCaptchaSid(), retry.captchaKey().get());
+            }
+
+            success = !stopping && write(post);
+        } catch (CaptchaDeferredException e) {
+            log.warn("Post parked until the captcha is solved! Group: {}, sid: {}", post.getGroupWork().getGroup(), e.getCaptchaSid());
+            parking.park(post, e);
+            parked = true;
+        } catch (RuntimeException e) {
+            log.error("Posting error! Group: {}, error: {}", post.getGroupWork().getGroup(), e.getMessage());
+        } finally {
+            vkService.clearCaptchaSolution();
+            if (!parked) post.getGroupWork().getCompletion().release(success);
+        }
+    }
+
+    // discovery stage: batches the reads of up to 25 groups and hands them to the dedup workers
+    private void discoverGroups(Map<VkAccount, RequestContext> contexts, List<GroupCandidate> candidates,
+                                Map<Integer, GroupCapability> capabilities,
+                                BlockingQueue<GroupWork> queue, PlanFile plan) throws InterruptedException {
+        var pendingCandidates = candidates.stream()
+                .filter(this::isPending)
+                .collect(Collectors.toList());
+        var topicGroups = FALSE.equals(clientProperties.getPostToGroupsTopics())
+                ? Collections.<GroupFull>emptyList()
+                : pendingCandidates.stream()
+                        .map(GroupCandidate::getGroup)
+                        .filter(group -> capabilityOf(capabilities, group).isActive())
+                        .collect(Collectors.toList());
+        var wallGroups = FALSE.equals(clientProperties.getPostToGroups())
+                ? Collections.<GroupFull>emptyList()
+                : pendingCandidates.stream()
+                        .filter(candidate -> !checkpointJournal.isDone(candidate.getTag().getId(), candidate.getGroup().getId(), PostedIndex.WALL_TOPIC_ID))
+                        .map(GroupCandidate::getGroup)
+                        .filter(group -> capabilityOf(capabilities, group).canPostToWall())
+                        .filter(group -> !exclusionStore.isExcluded(group.getId(), PostedIndex.WALL_TOPIC_ID))
+                        .filter(group -> !postedIndex.isFresh(group.getId(), PostedIndex.WALL_TOPIC_ID, clientProperties.getPostMessage()))
+                        .collect(Collectors.toList());
+
+        var topics = new HashMap<Integer, List<Topic>>();
+        var suggests = new HashMap<Integer, List<TextItem>>();
+        var posts = new HashMap<Integer, List<TextItem>>();
+        for (var context : contexts.values()) {
+            var accountTopicGroups = groupsOf(context.getAccount(), topicGroups);
+            var accountWallGroups = groupsOf(context.getAccount(), wallGroups);
+            if (accountTopicGroups.isEmpty() && accountWallGroups.isEmpty()) continue;
+
+            topics.putAll(vkService.getGroupsTopics(context, accountTopicGroups));
+            // suggested posts are not searchable, they are always scanned
+            suggests.putAll(vkService.getGroupsWallPosts(context, accountWallGroups, GetFilter.SUGGESTS));
+            posts.putAll(queryGroupsWallPosts(context, accountWallGroups));
+        }
+
+        for (var candidate : candidates) {
+            var tag = candidate.getTag();
+            var group = candidate.getGroup();
+            var groupIndex = candidate.getGroupIndex();
+            if (checkpointJournal.isDone(tag.getId(), group.getId(), CheckpointJournal.ALL)) {
+                log.info("Group already processed! Group: {}", group);
+                continue;
+            }
+
+            if (exclusionStore.isExcluded(group.getId(), ExclusionStore.ALL_TOPICS)) {
+                log.info("Processing group excluded! Group: {}", group);
+                settle(tag, groupIndex, group);
+                continue;
+            }
+
+            var context = accountRing.forGroup(group.getId()).map(contexts::get);
+            if (context.isEmpty()) {
+                log.error("No authorized accounts left! Group: {}", group);
+                candidate.getTagCompletion().hold();
+                candidate.getTagCompletion().release(false);
+                continue;
+            }
+
+            var capability = capabilityOf(capabilities, group);
+            if (!canAcceptPosts(capability)) {
+                log.info("Group cannot accept posts! Group: {}", group);
+                settle(tag, groupIndex, group);
+                continue;
+            }
+
+            var groupCompletion = new Completion(
+                    () -> checkpointJournal.record(tag.getId(), groupIndex, group.getId(), CheckpointJournal.ALL, CheckpointOutcome.DONE),
+                    candidate.getTagCompletion()
+            );
+            queue.put(new GroupWork(
+                    context.get(),
+                    tag,
+                    groupIndex,
+                    group,
+                    capability,
+                    topics.getOrDefault(group.getId(), Collections.emptyList()),
+                    suggests.getOrDefault(group.getId(), Collections.emptyList()),
+                    posts.getOrDefault(group.getId(), Collections.emptyList()),
+                    groupCompletion,
+                    plan
+            ));
+        }
+    }
+
+    // groups left out on purpose still move the resume cursor of the tag
+    private void settle(Tag tag, int groupIndex, GroupFull group) {
+        if (checkpointJournal.isDone(tag.getId(), group.getId(), CheckpointJournal.ALL)) return;
+
+        checkpointJournal.record(tag.getId(), groupIndex, group.getId(), CheckpointJournal.ALL, CheckpointOutcome.DONE);
+    }
+
+    // static and learned exclusions are checked before any request is spent on the group
+    private boolean isPending(GroupCandidate candidate) {
+        return !checkpointJournal.isDone(candidate.getTag().getId(), candidate.getGroup().getId(), CheckpointJournal.ALL)
+                && !exclusionStore.isExcluded(candidate.getGroup().getId(), ExclusionStore.ALL_TOPICS);
+    }
+
+    private GroupCapability capabilityOf(Map<Integer, GroupCapability> capabilities, GroupFull group) {
+        return capabilities.computeIfAbsent(group.getId(), id -> new GroupCapability());
+    }
+
+    private boolean canAcceptPosts(GroupCapability capability) {
+        return (!FALSE.equals(clientProperties.getPostToGroups()) && capability.canPostToWall())
+                || (!FALSE.equals(clientProperties.getPostToGroupsTopics()) && capability.isActive());
+    }
+
+    // one groups.getById call per account resolves up to 500 groups, so doomed groups cost no reads of their own
+    private Map<Integer, GroupCapability> queryCapabilities(Map<VkAccount, RequestContext> contexts, List<GroupCandidate> candidates) {
+        var pendingGroups = candidates.stream()
+                .filter(this::isPending)
+                .map(GroupCandidate::getGroup)
+                .collect(Collectors.toList());
+
+        var capabilities = new HashMap<Integer, GroupCapability>();
+        for (var context : contexts.values()) {
+            var accountGroups = groupsOf(context.getAccount(), pendingGroups);
+            if (accountGroups.isEmpty()) continue;
+
+            capabilities.putAll(vkService.getGroupsCapabilities(context, accountGroups));
         }
 
-        Thread.sleep(clientProperties.getQueryInterval());
+        return capabilities;
     }
 
-    private List<Tag> queryTags() {
-        return vkService.getTags().stream()
+    // the stalest groups go first, so a limited write quota is spent where it matters most
+    private List<GroupCandidate> prioritize(Collection<GroupCandidate> candidates, Map<Integer, Double> weights) {
+        var now = System.currentTimeMillis();
+        var priorities = new HashMap<Integer, Double>();
+        for (var candidate : candidates) {
+            var groupId = candidate.getGroup().getId();
+            priorities.put(groupId, weights.get(groupId) * (now - postedIndex.lastPostedAt(groupId)));
+        }
+
+        // the sort is stable, equally stale groups keep the bookmarks order
+        var ordered = new ArrayList<>(candidates);
+        ordered.sort(Comparator.comparing((GroupCandidate candidate) -> priorities.get(candidate.getGroup().getId())).reversed());
+
+        return ordered;
+    }
+
+    // prioritizes a window of groups and hands it to discoverGroups
+    private void discoverWindow(Map<VkAccount, RequestContext> contexts, Collection<GroupCandidate> window, Map<Integer, Double> weights,
+                                BlockingQueue<GroupWork> queue, PlanFile plan) throws InterruptedException {
+        var ordered = prioritize(window, weights);
+        log.info("Groups discovered: {}", ordered.size());
+
+        for (var from = 0; from < ordered.size() && !stopping; from += VkService.GROUPS_BY_ID_LIMIT) {
+            var batch = ordered.subList(from, Math.min(from + VkService.GROUPS_BY_ID_LIMIT, ordered.size()));
+            var capabilities = queryCapabilities(contexts, batch);
+            for (var chunkFrom = 0; chunkFrom < batch.size() && !stopping; chunkFrom += VkService.EXECUTE_CALLS_LIMIT) {
+                discoverGroups(contexts, batch.subList(chunkFrom, Math.min(chunkFrom + VkService.EXECUTE_CALLS_LIMIT, batch.size())), capabilities, queue, plan);
+            }
+        }
+    }
+
+    private void discover(Map<VkAccount, RequestContext> contexts, RequestContext tagsContext,
+                          BlockingQueue<GroupWork> queue, PlanFile plan) throws InterruptedException {
+        // a group bookmarked under several tags is checked once, under the first of them
+        var seen = new HashSet<Integer>();
+        // groups are prioritized within windows of discoveryWindowSize, so huge tags are not held in memory
+        var window = new LinkedHashMap<Integer, GroupCandidate>();
+        var weights = new HashMap<Integer, Double>();
+        var tagCompletions = new LinkedHashMap<Completion, Boolean>();
+        var completed = false;
+        try {
+            for (var tag : queryTags(tagsContext)) {
+                if (stopping) break;
+
+                if (checkpointJournal.isDone(tag.getId(), CheckpointJournal.ALL, CheckpointJournal.ALL)) {
+                    log.info("Tag already processed! Tag: {}", tag);
+                    continue;
+                }
+
+                log.info("Selected tag: {}", tag);
+                var weight = clientProperties.getTagWeights().getOrDefault(tag.getName(), 1.0);
+                var offset = checkpointJournal.resumeOffset(tag.getId());
+                if (offset > 0) log.info("Resuming tag from group {}! Tag: {}", offset, tag);
+                var count = new AtomicInteger(offset);
+                // the tag is done once every group assigned to it is, which may happen long after discovery
+                var tagCompletion = new Completion(
+                        () -> checkpointJournal.record(tag.getId(), count.get(), CheckpointJournal.ALL, CheckpointJournal.ALL, CheckpointOutcome.DONE),
+                        null
+                );
+                tagCompletions.put(tagCompletion, false);
+
+                // fave tags are personal, so the tag pages are read by the same account
+                var pages = vkService.getTagPages(tagsContext, tag, offset);
+                while (!stopping && pages.hasNext()) {
+                    var group = pages.next().getGroup();
+                    var groupIndex = count.getAndIncrement();
+                    if (!seen.add(group.getId()) || checkpointJournal.isGroupDone(group.getId())) {
+                        // handled under another tag or in the interrupted run
+                        settle(tag, groupIndex, group);
+                    } else {
+                        window.put(group.getId(), new GroupCandidate(tag, groupIndex, group, tagCompletion));
+                    }
+                    // the highest weight wins while the group's window is still open
+                    if (window.containsKey(group.getId())) weights.merge(group.getId(), weight, Math::max);
+
+                    if (window.size() >= clientProperties.getDiscoveryWindowSize()) {
+                        discoverWindow(contexts, window.values(), weights, queue, plan);
+                        window.clear();
+                        weights.clear();
+                    }
+                }
+                if (pages.failed()) log.warn("Tag pages not fully read, the tag will be checked again! Tag: {}", tag);
+                // a failed page load ends the pages too, but the tag is not exhausted then
+                tagCompletions.put(tagCompletion, !pages.hasNext() && !pages.failed());
+            }
+
+            discoverWindow(contexts, window.values(), weights, queue, plan);
+            log.info("Discovery finished, groups: {}, tags: {}", seen.size(), tagCompletions.size());
+            completed = !stopping;
+        } finally {
+            // an interrupted discovery may not have queued every group of the tag
+            var dispatched = completed;
+            tagCompletions.forEach((tagCompletion, exhausted) -> tagCompletion.release(exhausted && dispatched));
+        }
+    }
+
+    private void await(Future<Void> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            log.error("Pipeline stage error: {}", e.getCause().getMessage());
+        }
+    }
+
+    private Map<Integer, List<TextItem>> queryGroupsWallPosts(RequestContext context, List<GroupFull> groups) {
+        if (clientProperties.getDuplicateCheckMode() == DuplicateCheckMode.SCAN) {
+            return vkService.getGroupsWallPosts(context, groups, GetFilter.ALL);
+        }
+
+        var posts = vkService.searchGroupsWallPosts(context, groups, messageMatcher.getQueries());
+        var failedGroups = groups.stream()
+                .filter(group -> !posts.containsKey(group.getId()))
+                .collect(Collectors.toList());
+        if (!failedGroups.isEmpty()) {
+            log.warn("Wall search failed for {} groups, scanning their walls", failedGroups.size());
+            posts.putAll(vkService.getGroupsWallPosts(context, failedGroups, GetFilter.ALL));
+        }
+
+        return posts;
+    }
+
+    private List<GroupFull> groupsOf(VkAccount account, List<GroupFull> groups) {
+        return groups.stream()
+                .filter(group -> accountRing.forGroup(group.getId()).filter(account::equals).isPresent())
+                .collect(Collectors.toList());
+    }
+
+    private List<Tag> queryTags(RequestContext context) {
+        return vkService.getTags(context).stream()
                 .filter(tag -> clientProperties.getTags().contains(tag.getName()))
                 .collect(Collectors.toList());
     }
 
-    public Integer process() throws InterruptedException {
-        if (FALSE.equals(authorizeClient())) {
-            log.error("Failed to authorize API requests. Check your settings!");
-            return 1;
+    public void stop() {
+        stopping = true;
+    }
+
+    private Optional<Map<VkAccount, RequestContext>> prepareRun() {
+        if (isNull(accountRing)) {
+            var accounts = clientProperties.getAccounts().isEmpty()
+                    ? authorizeClient().map(List::of).orElse(Collections.emptyList())
+                    : authorizeAccounts();
+            if (accounts.isEmpty()) {
+                log.error("Failed to authorize API requests. Check your settings!");
+                return Optional.empty();
+            }
+
+            log.info("Authorized accounts: {}", accounts.size());
+            accountRing = new AccountRing(accounts);
+        }
+
+        // tokens revoked in a previous daemon cycle get another chance
+        accountRing.getAccounts().stream()
+                .filter(VkAccount::isRevoked)
+                .filter(vkService::checkAuthorization)
+                .forEach(account -> {
+                    account.restore();
+                    log.info("Account {} authorization restored", account.getId());
+                });
+
+        if (accountRing.primary().isEmpty()) {
+            log.error("All accounts lost authorization. Check your settings!");
+            return Optional.empty();
+        }
+
+        var contexts = new HashMap<VkAccount, RequestContext>();
+        accountRing.getAccounts().forEach(account -> contexts.put(account, RequestContext.of(account, clientProperties)));
+
+        return Optional.of(contexts);
+    }
+
+    private void runPipeline(Map<VkAccount, RequestContext> contexts, PlanFile plan) throws InterruptedException {
+        var tagsContext = contexts.get(accountRing.primary().orElseThrow());
+        var threads = clientProperties.getProcessingThreads();
+        var groups = new ArrayBlockingQueue<GroupWork>(clientProperties.getPipelineQueueSize());
+        var writes = new ArrayBlockingQueue<PostWork>(clientProperties.getPipelineQueueSize());
+
+        var executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            var checkers = new ArrayList<Future<Void>>(threads);
+            for (var i = 0; i < threads; i++) {
+                checkers.add(executor.submit(() -> checkGroups(groups, writes)));
+            }
+            var writer = executor.submit(() -> writePosts(writes));
+
+            try {
+                discover(contexts, tagsContext, groups, plan);
+            } finally {
+                // drain the stages in order, each one ends after its producers did
+                for (var i = 0; i < threads; i++) {
+                    groups.put(GroupWork.END);
+                }
+                for (var checker : checkers) {
+                    await(checker);
+                }
+                writes.put(PostWork.END);
+                await(writer);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public Integer process(boolean resume) throws InterruptedException, IOException {
+        var contexts = prepareRun();
+        if (contexts.isEmpty()) return 1;
+
+        checkpointJournal.start(resume);
+        try {
+            runPipeline(contexts.get(), null);
+        } finally {
+            checkpointJournal.close();
+            log.info("Response cache hits: {}, misses: {}", responseCache.getHits(), responseCache.getMisses());
+        }
+
+        return 0;
+    }
+
+    // discovery and duplicate checks only, nothing is posted and the checkpoint journal is left intact
+    public Integer plan() throws InterruptedException, IOException {
+        var contexts = prepareRun();
+        if (contexts.isEmpty()) return 1;
+
+        var path = Path.of(clientProperties.getPlanFile());
+        try (var plan = PlanFile.create(path)) {
+            runPipeline(contexts.get(), plan);
+
+            // the writer serves accounts in turn, so posting takes as long as the busiest account needs
+            var estimate = Duration.ZERO;
+            for (var context : contexts.get().values()) {
+                var account = context.getAccount();
+                var posts = plan.getPostsByAccount().getOrDefault(account.getId(), 0);
+                var duration = Duration.ofMillis((long) (posts * 1000 / account.getRateLimiter().getConfiguredRate(RequestType.WRITE)));
+                if (duration.compareTo(estimate) > 0) estimate = duration;
+            }
+
+            log.info("Plan saved to {}, posts: {}, skips: {}, estimated posting time: {}",
+                    path,
+                    plan.getPostsByAccount().values().stream().mapToInt(Integer::intValue).sum(),
+                    plan.getSkips(),
+                    estimate);
         }
 
-        vkService.setTagPagesQuerySize(clientProperties.getTagPagesQuerySize());
-        vkService.setTopicCommentsQuerySize(clientProperties.getGroupTopicQuerySize());
-        vkService.setGroupWallPostsQuerySize(clientProperties.getGroupPostQuerySize());
+        return 0;
+    }
 
-        for (var tag : queryTags()) {
+    // posts what a previous PLAN run found missing, without discovery and duplicate reads
+    public Integer executePlan(boolean resume) throws InterruptedException, IOException {
+        var contexts = prepareRun();
+        if (contexts.isEmpty()) return 1;
 
-            log.info("Selected tag: {}", tag);
+        // with several checkers the posts of a group are interleaved with others in the file
+        var groups = PlanFile.read(Path.of(clientProperties.getPlanFile())).stream()
+                .filter(entry -> entry.getAction() == PlanAction.POST)
+                .collect(Collectors.groupingBy(
+                        entry -> List.of(entry.getTagId(), entry.getGroupId()),
+                        LinkedHashMap::new,
+                        Collectors.toList()
+                ));
+        log.info("Executing plan {}, groups: {}", clientProperties.getPlanFile(), groups.size());
 
-            for (var page : vkService.getTagPages(tag)) {
-                var group = page.getGroup();
+        var writes = new ArrayBlockingQueue<PostWork>(clientProperties.getPipelineQueueSize());
+        var executor = Executors.newSingleThreadExecutor();
+        checkpointJournal.start(resume);
+        try {
+            var writer = executor.submit(() -> writePosts(writes));
+            try {
+                for (var groupEntries : groups.values()) {
+                    if (stopping) break;
 
-                log.info("Selected group: {}", group);
+                    var work = planGroupWork(contexts.get(), groupEntries.get(0));
+                    if (isNull(work)) continue;
 
-                sendTopicComments(group);
-                sendGroupMessage(group);
+                    var queued = false;
+                    try {
+                        queuePlannedPosts(work, groupEntries, writes);
+                        queued = !stopping;
+                    } finally {
+                        work.getCompletion().release(queued);
+                    }
+                }
+            } finally {
+                writes.put(PostWork.END);
+                await(writer);
             }
+        } finally {
+            executor.shutdownNow();
+            checkpointJournal.close();
         }
 
         return 0;
     }
+
+    private void queuePlannedPosts(GroupWork work, List<PlanEntry> entries, BlockingQueue<PostWork> writes) throws InterruptedException {
+        for (var entry : entries) {
+            if (stopping) return;
+
+            if (checkpointJournal.isDone(entry.getTagId(), entry.getGroupId(), entry.getTopicId())
+                    || postedIndex.isFresh(entry.getGroupId(), entry.getTopicId(), clientProperties.getPostMessage())) {
+                log.info("Planned post already done! Group: {}, topic: {}", entry.getGroupId(), entry.getTopicId());
+                continue;
+            }
+
+            if (exclusionStore.isExcluded(entry.getGroupId(), entry.getTopicId())) {
+                log.info("Planned post excluded! Group: {}, topic: {}", entry.getGroupId(), entry.getTopicId());
+                continue;
+            }
+
+            Topic topic = null;
+            if (entry.getTopicId() != PostedIndex.WALL_TOPIC_ID) {
+                topic = new Topic();
+                topic.setId(entry.getTopicId());
+            }
+
+            work.getCompletion().hold();
+            writes.put(new PostWork(work, topic));
+        }
+    }
+
+    private GroupWork planGroupWork(Map<VkAccount, RequestContext> contexts, PlanEntry entry) {
+        var context = accountRing.forGroup(entry.getGroupId()).map(contexts::get);
+        if (context.isEmpty()) {
+            log.error("No authorized accounts left! Group: {}", entry.getGroupId());
+            return null;
+        }
+
+        var tag = new Tag();
+        tag.setId(entry.getTagId());
+        var group = new GroupFull();
+        group.setId(entry.getGroupId());
+
+        return new GroupWork(
+                context.get(),
+                tag,
+                entry.getGroupIndex(),
+                group,
+                new GroupCapability(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                new Completion(
+                        () -> checkpointJournal.record(entry.getTagId(), entry.getGroupIndex(), entry.getGroupId(), CheckpointJournal.ALL, CheckpointOutcome.DONE),
+                        null
+                ),
+                null
+        );
+    }
 }
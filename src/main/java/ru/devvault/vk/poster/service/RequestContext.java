@@ -0,0 +1,31 @@
+package ru.devvault.vk.poster.service;
+
+import com.vk.api.sdk.client.actors.UserActor;
+import lombok.Value;
+import ru.devvault.vk.poster.account.VkAccount;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+// immutable per-run view of an account and the query sizes, shared freely between workers
+@Value
+public class RequestContext {
+
+    VkAccount account;
+    int tagPagesQuerySize;
+    int topicCommentsQuerySize;
+    int groupWallPostsQuerySize;
+    int wallSearchQuerySize;
+
+    public static RequestContext of(VkAccount account, ClientProperties clientProperties) {
+        return new RequestContext(
+                account,
+                clientProperties.getTagPagesQuerySize(),
+                clientProperties.getGroupTopicQuerySize(),
+                clientProperties.getGroupPostQuerySize(),
+                clientProperties.getWallSearchQuerySize()
+        );
+    }
+
+    public UserActor getActor() {
+        return account.getActor();
+    }
+}
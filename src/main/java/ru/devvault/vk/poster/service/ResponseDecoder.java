@@ -0,0 +1,131 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.vk.api.sdk.exceptions.ApiException;
+import com.vk.api.sdk.exceptions.ClientException;
+import com.vk.api.sdk.exceptions.ExceptionMapper;
+import com.vk.api.sdk.exceptions.RequiredFieldException;
+import com.vk.api.sdk.objects.Validable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.error.MyApiException;
+import ru.devvault.vk.poster.error.MyError;
+import ru.devvault.vk.poster.error.ResponseDecodeException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseDecoder {
+
+    private final Gson gson;
+
+    @FunctionalInterface
+    private interface ValueReader<T> {
+        T read(JsonReader reader) throws IOException, ClientException;
+    }
+
+    public <T> T decode(String textResponse, Type responseType) throws ClientException, ApiException {
+        return decode(textResponse, reader -> bind(textResponse, reader, responseType));
+    }
+
+    public <T> List<T> decodeBatch(String textResponse, Type itemType) throws ClientException, ApiException {
+        return decode(textResponse, reader -> {
+            var items = new ArrayList<T>();
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                // failed calls are returned as false, details are in execute_errors
+                if (reader.peek() == JsonToken.BOOLEAN) {
+                    reader.nextBoolean();
+                    items.add(null);
+                } else {
+                    items.add(bind(textResponse, reader, itemType));
+                }
+            }
+            reader.endArray();
+
+            return items;
+        });
+    }
+
+    private <T> T decode(String textResponse, ValueReader<T> responseReader) throws ClientException, ApiException {
+        log.debug("Response json: {}", textResponse);
+
+        try (var reader = new JsonReader(new StringReader(textResponse))) {
+            T result = null;
+            var hasResponse = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                var name = reader.nextName();
+                if ("error".equals(name)) {
+                    throw readError(textResponse, reader);
+                } else if ("response".equals(name)) {
+                    result = responseReader.read(reader);
+                    hasResponse = true;
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (hasResponse) {
+                return result;
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new ResponseDecodeException(format("Can't parse json response: %s%n%s", textResponse, e));
+        }
+
+        // responses without envelope (OAuth) are bound as a whole
+        try (var reader = new JsonReader(new StringReader(textResponse))) {
+            return responseReader.read(reader);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new ResponseDecodeException(format("Can't parse json response: %s%n%s", textResponse, e));
+        }
+    }
+
+    private MyApiException readError(String textResponse, JsonReader reader) throws IOException, ClientException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            log.error("Invalid JSON: {}", textResponse);
+            throw new ResponseDecodeException("Can't parse json response");
+        }
+
+        MyError error = gson.fromJson(reader, MyError.class);
+        var exception = MyApiException.of(ExceptionMapper.parseException(error), error);
+
+        log.error("API error", exception);
+        return exception;
+    }
+
+    private <T> T bind(String textResponse, JsonReader reader, Type responseType) throws ClientException {
+        T result = gson.fromJson(reader, responseType);
+        if (result instanceof Validable) {
+            validateValidable(textResponse, result);
+        }
+
+        log.debug("{} response: {}", responseType, result);
+
+        return result;
+    }
+
+    private <T> void validateValidable(String textResponse, T result) throws ClientException {
+        try {
+            var validable = (Validable) result;
+            validable.validateRequired();
+        } catch (RequiredFieldException | ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
+            throw new ResponseDecodeException(format("JSON validate fail: %s%n%s", textResponse, e));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.devvault.vk.poster.service;
+
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public RetryPolicy(ClientProperties clientProperties) {
+        this.maxAttempts = clientProperties.getRetryMaxAttempts();
+        this.baseDelayMillis = clientProperties.getRetryBaseDelay().toMillis();
+        this.maxDelayMillis = clientProperties.getRetryMaxDelay().toMillis();
+    }
+
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public Duration backoff(int attempt) {
+        // exponential backoff, jittered within the upper half of the step
+        var ceiling = Math.min(maxDelayMillis, baseDelayMillis * (1L << Math.min(attempt - 1, 20)));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+}
@@ -1,17 +1,16 @@
 package ru.devvault.vk.poster.service;
 
-import com.google.gson.*;
-import com.google.gson.stream.JsonReader;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.reflect.TypeToken;
 import com.vk.api.sdk.client.AbstractQueryBuilder;
 import com.vk.api.sdk.client.VkApiClient;
 import com.vk.api.sdk.client.actors.UserActor;
 import com.vk.api.sdk.exceptions.*;
 import com.vk.api.sdk.objects.UserAuthResponse;
-import com.vk.api.sdk.objects.Validable;
 import com.vk.api.sdk.objects.base.UserGroupFields;
+import com.vk.api.sdk.objects.board.GetCommentsSort;
 import com.vk.api.sdk.objects.board.Topic;
-import com.vk.api.sdk.objects.board.TopicComment;
-import com.vk.api.sdk.objects.board.responses.GetCommentsResponse;
 import com.vk.api.sdk.objects.board.responses.GetTopicsResponse;
 import com.vk.api.sdk.objects.fave.GetPagesType;
 import com.vk.api.sdk.objects.fave.Page;
@@ -20,20 +19,36 @@ import com.vk.api.sdk.objects.fave.responses.GetPagesResponse;
 import com.vk.api.sdk.objects.fave.responses.GetTagsResponse;
 import com.vk.api.sdk.objects.groups.GroupFull;
 import com.vk.api.sdk.objects.wall.GetFilter;
-import com.vk.api.sdk.objects.wall.WallpostFull;
-import com.vk.api.sdk.objects.wall.responses.GetResponse;
 import com.vk.api.sdk.objects.wall.responses.PostResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.devvault.vk.poster.account.VkAccount;
+import ru.devvault.vk.poster.cache.ResponseCache;
+import ru.devvault.vk.poster.captcha.CaptchaResolver;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.ErrorType;
+import ru.devvault.vk.poster.enums.RequestType;
+import ru.devvault.vk.poster.error.CaptchaDeferredException;
 import ru.devvault.vk.poster.error.MyApiException;
-import ru.devvault.vk.poster.error.MyError;
+import ru.devvault.vk.poster.error.ResponseDecodeException;
+import ru.devvault.vk.poster.limiter.VkRateLimiter;
+import ru.devvault.vk.poster.metrics.VkMetrics;
+import ru.devvault.vk.poster.model.BatchCall;
+import ru.devvault.vk.poster.model.CaptchaSolution;
+import ru.devvault.vk.poster.model.GroupCapability;
+import ru.devvault.vk.poster.model.ItemsPage;
+import ru.devvault.vk.poster.model.TextItem;
+import ru.devvault.vk.poster.model.TextItemsResponse;
+import ru.devvault.vk.poster.store.ExclusionStore;
+import ru.devvault.vk.poster.store.PostedIndex;
 
-import java.io.StringReader;
 import java.lang.reflect.Type;
-import java.util.Collections;
-import java.util.List;
-import java.util.Scanner;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Objects.isNull;
@@ -43,119 +58,211 @@ import static java.util.Objects.isNull;
 @RequiredArgsConstructor
 public class VkService {
 
-    public static final Integer CAPTCHA_ERROR_CODE = 14;
+    public static final int EXECUTE_CALLS_LIMIT = 25;
+    public static final int TOPICS_PAGE_SIZE = 100;
+    public static final int GROUPS_BY_ID_LIMIT = 500;
+
+    private static final Type TAGS_TYPE = new TypeToken<List<Tag>>() {}.getType();
+    private static final Type TAG_PAGES_TYPE = new TypeToken<ItemsPage<Page>>() {}.getType();
+    private static final Type GROUP_TOPICS_PAGE_TYPE = new TypeToken<ItemsPage<Topic>>() {}.getType();
+    private static final Type GROUP_TOPICS_TYPE = new TypeToken<List<Topic>>() {}.getType();
+    private static final Type GROUP_CAPABILITIES_TYPE = new TypeToken<List<GroupCapability>>() {}.getType();
 
     private final Gson gson;
+    private final ResponseDecoder responseDecoder;
     private final VkApiClient apiClient;
     private final Scanner scanner;
-
-    private UserActor userActor;
-    private Integer tagPagesQuerySize;
-    private Integer topicCommentsQuerySize;
-    private Integer groupWallPostsQuerySize;
-
-    public void setTagPagesQuerySize(Integer tagPagesQuerySize) {
-        this.tagPagesQuerySize = tagPagesQuerySize;
+    private final ResponseCache responseCache;
+    private final RetryPolicy retryPolicy;
+    private final CaptchaResolver captchaResolver;
+    private final ClientProperties clientProperties;
+    private final VkMetrics metrics;
+    private final ExclusionStore exclusionStore;
+    private final ThreadLocal<Boolean> deferCaptchas = ThreadLocal.withInitial(() -> false);
+    private final ThreadLocal<CaptchaSolution> captchaSolution = new ThreadLocal<>();
+    private final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "vk-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @FunctionalInterface
+    private interface Decoder<V> {
+        V decode(String textResponse) throws ApiException, ClientException;
     }
 
-    public Integer getTagPagesQuerySize() {
-        return tagPagesQuerySize;
+    private String readInput(String prompt) {
+        System.out.printf("%s: ", prompt);
+        return scanner.next();
     }
 
-    public void setTopicCommentsQuerySize(Integer topicCommentsQuerySize) {
-        this.topicCommentsQuerySize = topicCommentsQuerySize;
+    // pipeline stages park their work on a captcha and retry it with the solution later
+    public void deferCaptchas(boolean defer) {
+        deferCaptchas.set(defer);
     }
 
-    public Integer getTopicCommentsQuerySize() {
-        return topicCommentsQuerySize;
+    // the solution goes with the next request of the calling thread
+    public void useCaptchaSolution(String captchaSid, String captchaKey) {
+        captchaSolution.set(new CaptchaSolution(captchaSid, captchaKey));
     }
 
-    public void setGroupWallPostsQuerySize(Integer groupWallPostsQuerySize) {
-        this.groupWallPostsQuerySize = groupWallPostsQuerySize;
+    public void clearCaptchaSolution() {
+        captchaSolution.remove();
     }
 
-    public Integer getGroupWallPostsQuerySize() {
-        return groupWallPostsQuerySize;
-    }
+    private <T, R> void addCaptcha(AbstractQueryBuilder<T, R> query, MyApiException e) throws ApiException, ClientException {
+        if (deferCaptchas.get()) {
+            var solution = captchaResolver.request(e.getError().getCaptchaSid(), e.getError().getCaptchaImg());
+            if (solution.isPresent()) throw new CaptchaDeferredException(e.getError().getCaptchaSid(), solution.get());
+        }
 
-    private <T> void validateValidable(String textResponse, T result) throws ClientException {
+        Optional<String> captchaKey;
         try {
-            var validable = (Validable) result;
-            validable.validateRequired();
-        } catch (RequiredFieldException | ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
-            throw new ClientException(format("JSON validate fail: %s%n%s", textResponse, e));
+            captchaKey = captchaResolver.resolve(e.getError().getCaptchaSid(), e.getError().getCaptchaImg());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted while waiting for captcha solution");
         }
-    }
 
-    private <T> T execute(String textResponse, Type responseClass) throws ClientException, ApiException {
-        log.debug("Response json: {}", textResponse);
+        // unsolved captcha defers the request to the next run
+        if (captchaKey.isEmpty()) throw e;
 
-        var jsonReader = new JsonReader(new StringReader(textResponse));
-        var jsonParser = new JsonParser();
-        var json = (JsonObject) jsonParser.parse(jsonReader);
+        query.captchaSid(e.getError().getCaptchaSid());
+        query.captchaKey(captchaKey.get());
+    }
 
-        if (json.has("error")) {
-            var errorElement = json.get("error");
-            MyError error;
-            try {
-                error = gson.fromJson(errorElement, MyError.class);
-            } catch (JsonSyntaxException e) {
-                log.error("Invalid JSON: {}", textResponse);
-                throw new ClientException("Can't parse json response");
-            }
+    private void acquirePermit(VkRateLimiter rateLimiter, RequestType requestType) throws ClientException {
+        try {
+            rateLimiter.acquire(requestType);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted while waiting for request permit");
+        }
+    }
 
-            var exception = MyApiException.of(ExceptionMapper.parseException(error), error);
+    private <T, R> R getQueryData(String method, VkAccount account, AbstractQueryBuilder<T, R> query, Class<R> responseType, RequestType requestType) throws ApiException, ClientException {
+        return getQueryData(method, account, query, textResponse -> responseDecoder.decode(textResponse, responseType), requestType);
+    }
 
-            log.error("API error", exception);
-            throw exception;
+    private <T, R, V> V getQueryData(String method, VkAccount account, AbstractQueryBuilder<T, R> query, Decoder<V> decoder, RequestType requestType) throws ApiException, ClientException {
+        try {
+            return getQueryData(method, account.getRateLimiter(), query, decoder, requestType);
+        } catch (MyApiException e) {
+            if (ErrorType.of(e.getCode()) == ErrorType.AUTHORIZATION) {
+                account.revoke();
+                log.error("Account {} authorization failed, its groups move to other accounts: {}", account.getId(), e.getMessage());
+            }
+            throw e;
         }
+    }
 
-        var response = (JsonElement) json;
-        if (json.has("response")) {
-            response = json.get("response");
+    private void backoff(int attempt) throws ClientException {
+        var delay = retryPolicy.backoff(attempt);
+        log.warn("Retry {} of {} in {} ms", attempt, retryPolicy.getMaxAttempts() - 1, delay.toMillis());
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted while waiting for retry");
         }
+    }
 
+    private <T, R, V> V executeTimed(String method, AbstractQueryBuilder<T, R> query, Decoder<V> decoder) throws ApiException, ClientException {
+        var sample = metrics.start();
+        var errorCode = VkMetrics.CLIENT_ERROR;
         try {
-            T result = gson.fromJson(response, responseClass);
-            if (result instanceof Validable) {
-                validateValidable(textResponse, result);
-            }
-
-            log.debug("{} response: {}", responseClass, result);
+            var result = decoder.decode(query.executeAsString());
+            errorCode = VkMetrics.SUCCESS;
 
             return result;
-        } catch (JsonSyntaxException e) {
-            throw new ClientException(format("Can't parse json response: %s%n%s", textResponse, e));
+        } catch (ApiException e) {
+            errorCode = String.valueOf(e.getCode());
+            throw e;
+        } finally {
+            metrics.stop(sample, method, errorCode);
         }
     }
 
-    private String readInput(String prompt) {
-        System.out.printf("%s: ", prompt);
-        return scanner.next();
+    private <T, R, V> V getQueryData(String method, VkRateLimiter rateLimiter, AbstractQueryBuilder<T, R> query, Decoder<V> decoder, RequestType requestType) throws ApiException, ClientException {
+        var solution = captchaSolution.get();
+        if (!isNull(solution)) {
+            captchaSolution.remove();
+            query.captchaSid(solution.getSid());
+            query.captchaKey(solution.getKey());
+        }
+
+        var attempt = 1;
+        while (true) {
+            try {
+                acquirePermit(rateLimiter, requestType);
+                var result = executeTimed(method, query, decoder);
+                rateLimiter.recover(requestType);
+
+                return result;
+            } catch (MyApiException e) {
+                var errorType = ErrorType.of(e.getCode());
+                if (errorType == ErrorType.CAPTCHA) {
+                    addCaptcha(query, e);
+                    continue;
+                }
+
+                if (errorType == ErrorType.THROTTLING) {
+                    rateLimiter.throttle(requestType);
+                }
+
+                if (errorType == ErrorType.PERMANENT || errorType == ErrorType.AUTHORIZATION || !retryPolicy.canRetry(attempt)) throw e;
+
+                backoff(attempt++);
+            } catch (ResponseDecodeException e) {
+                throw e;
+            } catch (ClientException e) {
+                // what is left are transport failures: I/O errors, timeouts and bad HTTP statuses
+                if (Thread.currentThread().isInterrupted() || !retryPolicy.canRetry(attempt)) throw e;
+
+                log.warn("Client error: {}", e.getMessage());
+                backoff(attempt++);
+            }
+        }
+    }
+
+    private String toScript(List<BatchCall> calls) {
+        return calls.stream()
+                .map(call -> format("API.%s(%s)", call.getMethod(), gson.toJson(call.getParams())))
+                .collect(Collectors.joining(",", "return [", "];"));
     }
 
-    private <T, R> AbstractQueryBuilder<T, R> addCaptcha(AbstractQueryBuilder<T, R> query, MyError e) {
-        query.captchaSid(e.getCaptchaSid());
+    private <R> List<R> executeBatch(String method, VkAccount account, List<BatchCall> calls, Type responseType) {
+        var results = new ArrayList<R>(calls.size());
 
-        log.warn("Captcha image URL: {}", e.getCaptchaImg());
-        query.captchaKey(readInput("Enter captcha code"));
+        for (var from = 0; from < calls.size(); from += EXECUTE_CALLS_LIMIT) {
+            var chunk = calls.subList(from, Math.min(from + EXECUTE_CALLS_LIMIT, calls.size()));
+            try {
+                results.addAll(getQueryData(
+                        method,
+                        account,
+                        apiClient
+                                .execute()
+                                .code(account.getActor(), toScript(chunk)),
+                        textResponse -> responseDecoder.<R>decodeBatch(textResponse, responseType),
+                        RequestType.READ
+                ));
+            } catch (ApiException | ClientException e) {
+                // a failed chunk doesn't take the results of the others with it, its calls count as failed
+                log.error("Execute batch error, calls: {}, error: {}", chunk.size(), e.getMessage());
+                results.addAll(Collections.nCopies(chunk.size(), null));
+            }
+        }
 
-        return query;
+        return results;
     }
 
-    private <T, R> R getQueryData(AbstractQueryBuilder<T, R> query, Class<R> responseType) throws ApiException, ClientException {
-        try {
-            return execute(query.executeAsString(), responseType);
-        } catch (MyApiException e) {
-            if (e.getCode().equals(CAPTCHA_ERROR_CODE)) {
-                return getQueryData(addCaptcha(query, e.getError()), responseType);
-            }
+    private VkAccount createAccount(UserActor actor, VkRateLimiter rateLimiter) {
+        metrics.bindRateLimiter(actor.getId(), rateLimiter);
 
-            throw e;
-        }
+        return new VkAccount(actor, rateLimiter);
     }
 
-    public Boolean authorize(Integer appId, String clientSecret, String redirectUri, String code) {
+    public Optional<VkAccount> authorize(Integer appId, String clientSecret, String redirectUri, String code) {
         try {
             if (isNull(appId)) appId = Integer.valueOf(readInput("Enter application ID"));
             if (isNull(clientSecret)) clientSecret = readInput("Enter application client secret");
@@ -165,26 +272,28 @@ public class VkService {
                 code = readInput("Enter authorization code");
             }
 
+            var rateLimiter = new VkRateLimiter(clientProperties);
             UserAuthResponse authResponse = getQueryData(
+                    "authorize",
+                    rateLimiter,
                     apiClient
                             .oAuth()
                             .userAuthorizationCodeFlow(appId, clientSecret, redirectUri, code),
-                    UserAuthResponse.class
+                    textResponse -> responseDecoder.decode(textResponse, UserAuthResponse.class),
+                    RequestType.READ
             );
 
-            userActor = new UserActor(authResponse.getUserId(), authResponse.getAccessToken());
-
-            return true;
+            return Optional.of(createAccount(new UserActor(authResponse.getUserId(), authResponse.getAccessToken()), rateLimiter));
         } catch (OAuthException e) {
             log.error("OAuth error: {}", e.getRedirectUri());
         } catch (ApiException | ClientException e) {
             log.error("Authorization error: {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
     }
 
-    public Boolean authorize(Integer appId, String redirectUri, Integer userId, String accessToken) {
+    public Optional<VkAccount> authorize(Integer appId, String redirectUri, Integer userId, String accessToken) {
         try {
             if (isNull(userId) || isNull(accessToken)) {
                 if (isNull(appId)) appId = Integer.valueOf(readInput("Enter application ID"));
@@ -195,144 +304,200 @@ public class VkService {
                 if (isNull(userId)) userId = Integer.valueOf(readInput("Enter application user ID"));
             }
 
-            userActor = new UserActor(userId, accessToken);
+            return Optional.of(createAccount(new UserActor(userId, accessToken), new VkRateLimiter(clientProperties)));
         } catch (Exception e) {
             log.error("Authorization exception: {}", e.getMessage());
 
-            return false;
+            return Optional.empty();
         }
+    }
 
-        return true;
+    // checks the token of a revoked account, a failed check leaves it revoked
+    public boolean checkAuthorization(VkAccount account) {
+        try {
+            getQueryData(
+                    "checkAuthorization",
+                    account.getRateLimiter(),
+                    apiClient
+                            .users()
+                            .get(account.getActor()),
+                    textResponse -> responseDecoder.decode(textResponse, JsonArray.class),
+                    RequestType.READ
+            );
+
+            return true;
+        } catch (ApiException | ClientException e) {
+            log.warn("Account {} is still unauthorized: {}", account.getId(), e.getMessage());
+        }
+
+        return false;
     }
 
-    public List<Tag> getTags() {
+    private List<Tag> loadTags(RequestContext context) {
         try {
             return getQueryData(
+                    "getTags",
+                    context.getAccount(),
                     apiClient
                             .fave()
-                            .getTags(userActor),
-                    GetTagsResponse.class
+                            .getTags(context.getActor()),
+                    GetTagsResponse.class,
+                    RequestType.READ
             ).getItems();
         } catch (ApiException | ClientException e) {
             log.error("Get tags error: {}", e.getMessage());
         }
 
-        return Collections.emptyList();
+        return null;
     }
 
-    public List<Page> getTagPages(Tag tag) {
+    public List<Tag> getTags(RequestContext context) {
+        List<Tag> tags = responseCache.get(
+                format("fave.getTags:%d", context.getAccount().getId()),
+                TAGS_TYPE,
+                clientProperties.getCacheTagsTtl(),
+                () -> loadTags(context)
+        );
+
+        return isNull(tags) ? Collections.emptyList() : tags;
+    }
+
+    private ItemsPage<Page> loadTagPages(RequestContext context, Tag tag, int offset, int count) {
         try {
-            return getQueryData(
+            var response = getQueryData(
+                    "getTagPages",
+                    context.getAccount(),
                     apiClient
                             .fave()
-                            .getPages(userActor)
-                            .count(getTagPagesQuerySize())
+                            .getPages(context.getActor())
+                            .offset(offset)
+                            .count(count)
                             .type(GetPagesType.GROUPS)
                             .tagId(tag.getId())
                             .fields(UserGroupFields.ID, UserGroupFields.NAME),
-                    GetPagesResponse.class
-            ).getItems();
+                    GetPagesResponse.class,
+                    RequestType.READ
+            );
+
+            return new ItemsPage<>(response.getCount(), response.getItems());
         } catch (ApiException | ClientException e) {
             log.error("Get pages error: {}", e.getMessage());
         }
 
-        return Collections.emptyList();
+        return null;
+    }
+
+    private ItemsPage<Page> getTagPages(RequestContext context, Tag tag, int offset, int count) {
+        return responseCache.get(
+                format("fave.getPages:%d:%d:%d:%d", context.getAccount().getId(), tag.getId(), offset, count),
+                TAG_PAGES_TYPE,
+                clientProperties.getCacheTagPagesTtl(),
+                () -> loadTagPages(context, tag, offset, count)
+        );
     }
 
-    public List<Topic> getGroupTopics(GroupFull group) {
+    public PagedIterator<Page> getTagPages(RequestContext context, Tag tag, int offset) {
+        return new PagedIterator<>(
+                (pageOffset, count) -> getTagPages(context, tag, pageOffset, count),
+                offset,
+                context.getTagPagesQuerySize(),
+                prefetchExecutor
+        );
+    }
+
+    private ItemsPage<Topic> loadGroupTopics(RequestContext context, GroupFull group, int offset, int count) {
         try {
-            return getQueryData(
+            var response = getQueryData(
+                    "getGroupTopics",
+                    context.getAccount(),
                     apiClient
                             .board()
-                            .getTopics(userActor, group.getId())
+                            .getTopics(context.getActor(), group.getId())
+                            .offset(offset)
+                            .count(count)
                             .extended(false),
-                    GetTopicsResponse.class
-            ).getItems();
+                    GetTopicsResponse.class,
+                    RequestType.READ
+            );
+
+            return new ItemsPage<>(response.getCount(), response.getItems());
         } catch (ApiException | ClientException e) {
             log.error("Get topics error: {}", e.getMessage());
         }
 
-        return Collections.emptyList();
+        return null;
     }
 
-    public List<TopicComment> getTopicComments(GroupFull group, Topic topic) {
-        try {
-            var count = getQueryData(
-                    apiClient
-                            .board()
-                            .getComments(userActor, group.getId(), topic.getId())
-                            .count(1),
-                    GetCommentsResponse.class
-            ).getCount();
-
-            var page = Math.floorDiv(count, getTopicCommentsQuerySize());
-            return getQueryData(
-                    apiClient
-                            .board()
-                            .getComments(userActor, group.getId(), topic.getId())
-                            .offset((page > 0 ? page - 1 : 0) * getTopicCommentsQuerySize())
-                            .count(getTopicCommentsQuerySize() * 2),
-                    GetCommentsResponse.class
-            ).getItems();
-        } catch (ApiException | ClientException e) {
-            log.error("Get latest topic comment error: {}", e.getMessage());
-        }
+    private ItemsPage<Topic> getGroupTopics(RequestContext context, GroupFull group, int offset, int count) {
+        return responseCache.get(
+                format("board.getTopics:%d:%d:%d", group.getId(), offset, count),
+                GROUP_TOPICS_PAGE_TYPE,
+                clientProperties.getCacheGroupTopicsTtl(),
+                () -> loadGroupTopics(context, group, offset, count)
+        );
+    }
 
-        return Collections.emptyList();
+    public Stream<Topic> getGroupTopics(RequestContext context, GroupFull group, int offset) {
+        return PagedIterator.stream(
+                (pageOffset, count) -> getGroupTopics(context, group, pageOffset, count),
+                offset,
+                TOPICS_PAGE_SIZE,
+                prefetchExecutor
+        );
     }
 
-    public Integer createTopicComment(GroupFull group, Topic topic, String message) {
+    public Integer createTopicComment(RequestContext context, GroupFull group, Topic topic, String message) {
         try {
-            return getQueryData(
+            var commentId = getQueryData(
+                    "createTopicComment",
+                    context.getAccount(),
                     apiClient
                             .board()
-                            .createComment(userActor, group.getId(), topic.getId())
+                            .createComment(context.getActor(), group.getId(), topic.getId())
                             .fromGroup(false)
-                            .guid(format("%d%d%d", userActor.getId(), group.getId(), topic.getId()))
+                            .guid(format("%d%d%d", context.getAccount().getId(), group.getId(), topic.getId()))
                             .message(message),
-                    Integer.class
+                    Integer.class,
+                    RequestType.WRITE
             );
-        } catch (ApiException | ClientException e) {
+            metrics.posted("topic");
+
+            return commentId;
+        } catch (ApiException e) {
+            exclusionStore.record(group.getId(), topic.getId(), e.getCode());
+            log.error("Post topic comment error: {}", e.getMessage());
+        } catch (ClientException e) {
             log.error("Post topic comment error: {}", e.getMessage());
         }
 
         return 0;
     }
 
-    public List<WallpostFull> getGroupWallPosts(GroupFull group, GetFilter getFilter) {
+    public PostResponse createWallPost(RequestContext context, GroupFull group, String message) {
         try {
-            return getQueryData(
+            var response = getQueryData(
+                    "createWallPost",
+                    context.getAccount(),
                     apiClient
                             .wall()
-                            .get(userActor)
-                            .filter(getFilter)
-                            .count(getGroupWallPostsQuerySize())
-                            .ownerId(-group.getId()),
-                    GetResponse.class
-            ).getItems();
-        } catch (ApiException | ClientException e) {
-            log.error("Get wall post error: {}", e.getMessage());
-        }
-
-        return Collections.emptyList();
-    }
-
-    public PostResponse createWallPost(GroupFull group, String message) {
-        try {
-            return getQueryData(
-                    apiClient
-                            .wall()
-                            .post(userActor)
+                            .post(context.getActor())
                             .ownerId(-group.getId())
                             .fromGroup(false)
                             .friendsOnly(false)
                             .signed(true)
-                            .guid(format("%d%d", userActor.getId(), group.getId()))
+                            .guid(format("%d%d", context.getAccount().getId(), group.getId()))
                             .markAsAds(false)
                             .message(message),
-                    PostResponse.class
+                    PostResponse.class,
+                    RequestType.WRITE
             );
-        } catch (ApiException | ClientException e) {
+            metrics.posted("wall");
+
+            return response;
+        } catch (ApiException e) {
+            exclusionStore.record(group.getId(), PostedIndex.WALL_TOPIC_ID, e.getCode());
+            log.error("Group {} post message error: {}", group, e.getMessage());
+        } catch (ClientException e) {
             log.error("Group {} post message error: {}", group, e.getMessage());
         }
 
@@ -341,4 +506,151 @@ public class VkService {
 
         return nullObject;
     }
+
+    // can_post depends on the account, so the snapshot is cached per account
+    public Map<Integer, GroupCapability> getGroupsCapabilities(RequestContext context, List<GroupFull> groups) {
+        var accountId = context.getAccount().getId();
+        var result = new HashMap<Integer, GroupCapability>();
+        var ttl = clientProperties.getCacheGroupCapabilitiesTtl();
+        var missedIds = new ArrayList<Integer>();
+        for (var group : groups) {
+            Optional<GroupCapability> capability = responseCache.getIfPresent(format("groups.getById:%d:%d", accountId, group.getId()), GroupCapability.class, ttl);
+            if (capability.isPresent()) {
+                result.put(group.getId(), capability.get());
+            } else {
+                missedIds.add(group.getId());
+            }
+        }
+
+        var calls = new ArrayList<BatchCall>();
+        for (var from = 0; from < missedIds.size(); from += GROUPS_BY_ID_LIMIT) {
+            calls.add(BatchCall.of("groups.getById")
+                    .param("group_ids", missedIds.subList(from, Math.min(from + GROUPS_BY_ID_LIMIT, missedIds.size())).stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")))
+                    .param("fields", "can_post,can_suggest,wall"));
+        }
+
+        List<List<GroupCapability>> responses = executeBatch("getGroupsCapabilities", context.getAccount(), calls, GROUP_CAPABILITIES_TYPE);
+        for (var response : responses) {
+            if (isNull(response)) continue;
+
+            for (var capability : response) {
+                result.put(capability.getId(), capability);
+                responseCache.put(format("groups.getById:%d:%d", accountId, capability.getId()), capability, ttl);
+            }
+        }
+
+        return result;
+    }
+
+    public Map<Integer, List<Topic>> getGroupsTopics(RequestContext context, List<GroupFull> groups) {
+        var result = new HashMap<Integer, List<Topic>>();
+        var ttl = clientProperties.getCacheGroupTopicsTtl();
+        var missedGroups = new ArrayList<GroupFull>();
+        for (var group : groups) {
+            Optional<List<Topic>> topics = responseCache.getIfPresent(format("board.getTopics:%d", group.getId()), GROUP_TOPICS_TYPE, ttl);
+            if (topics.isPresent()) {
+                result.put(group.getId(), topics.get());
+            } else {
+                missedGroups.add(group);
+            }
+        }
+
+        var calls = missedGroups.stream()
+                .map(group -> BatchCall.of("board.getTopics")
+                        .param("group_id", group.getId())
+                        .param("count", TOPICS_PAGE_SIZE)
+                        .param("extended", 0))
+                .collect(Collectors.toList());
+
+        List<GetTopicsResponse> responses = executeBatch("getGroupsTopics", context.getAccount(), calls, GetTopicsResponse.class);
+        for (var i = 0; i < responses.size(); i++) {
+            var response = responses.get(i);
+            if (isNull(response)) continue;
+
+            var group = missedGroups.get(i);
+            var topics = new ArrayList<>(response.getItems());
+            if (response.getCount() > topics.size()) {
+                getGroupTopics(context, group, topics.size()).forEach(topics::add);
+            }
+            result.put(group.getId(), topics);
+            responseCache.put(format("board.getTopics:%d", group.getId()), topics, ttl);
+        }
+
+        return result;
+    }
+
+    public Map<Integer, List<TextItem>> getTopicsComments(RequestContext context, GroupFull group, List<Topic> topics) {
+        var calls = topics.stream()
+                .map(topic -> BatchCall.of("board.getComments")
+                        .param("group_id", group.getId())
+                        .param("topic_id", topic.getId())
+                        .param("sort", GetCommentsSort.REVERSE_CHRONOLOGICAL.getValue())
+                        .param("count", context.getTopicCommentsQuerySize()))
+                .collect(Collectors.toList());
+
+        var result = new HashMap<Integer, List<TextItem>>();
+        List<TextItemsResponse> responses = executeBatch("getTopicsComments", context.getAccount(), calls, TextItemsResponse.class);
+        for (var i = 0; i < responses.size(); i++) {
+            if (!isNull(responses.get(i))) {
+                result.put(topics.get(i).getId(), responses.get(i).getItems());
+            }
+        }
+
+        return result;
+    }
+
+    public Map<Integer, List<TextItem>> getGroupsWallPosts(RequestContext context, List<GroupFull> groups, GetFilter getFilter) {
+        var calls = groups.stream()
+                .map(group -> BatchCall.of("wall.get")
+                        .param("owner_id", -group.getId())
+                        .param("filter", getFilter.getValue())
+                        .param("count", context.getGroupWallPostsQuerySize()))
+                .collect(Collectors.toList());
+
+        var result = new HashMap<Integer, List<TextItem>>();
+        List<TextItemsResponse> responses = executeBatch("getGroupsWallPosts", context.getAccount(), calls, TextItemsResponse.class);
+        for (var i = 0; i < responses.size(); i++) {
+            if (!isNull(responses.get(i))) {
+                result.put(groups.get(i).getId(), responses.get(i).getItems());
+            }
+        }
+
+        return result;
+    }
+
+    // groups whose searches all succeeded, the rest are left to the caller to scan
+    public Map<Integer, List<TextItem>> searchGroupsWallPosts(RequestContext context, List<GroupFull> groups, List<String> queries) {
+        var calls = new ArrayList<BatchCall>(groups.size() * queries.size());
+        for (var group : groups) {
+            for (var query : queries) {
+                calls.add(BatchCall.of("wall.search")
+                        .param("owner_id", -group.getId())
+                        .param("query", query)
+                        .param("owners_only", 0)
+                        .param("count", context.getWallSearchQuerySize()));
+            }
+        }
+
+        var result = new HashMap<Integer, List<TextItem>>();
+        List<TextItemsResponse> responses = executeBatch("searchGroupsWallPosts", context.getAccount(), calls, TextItemsResponse.class);
+        for (var i = 0; i < groups.size(); i++) {
+            var items = new ArrayList<TextItem>();
+            for (var j = 0; j < queries.size(); j++) {
+                var response = responses.get(i * queries.size() + j);
+                if (isNull(response)) {
+                    items = null;
+                    break;
+                }
+                items.addAll(response.getItems());
+            }
+
+            if (!isNull(items)) {
+                result.put(groups.get(i).getId(), items);
+            }
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,147 @@
+package ru.devvault.vk.poster.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.CheckpointOutcome;
+
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+public class CheckpointJournal {
+
+    public static final int ALL = -1;
+
+    private static final String SEPARATOR = ";";
+
+    private final String journalFile;
+    private final int syncBatch;
+    private final Set<String> done = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> doneGroups = ConcurrentHashMap.newKeySet();
+    // indexes of the finished groups of each tag, the first gap is where the tag resumes
+    private final Map<Integer, BitSet> doneGroupIndexes = new HashMap<>();
+
+    private FileOutputStream stream;
+    private Writer writer;
+    private int unsynced;
+
+    public CheckpointJournal(ClientProperties clientProperties) {
+        this.journalFile = clientProperties.getCheckpointFile();
+        this.syncBatch = clientProperties.getCheckpointSyncBatch();
+    }
+
+    private static String key(int tagId, int groupId, int topicId) {
+        return format("%d%s%d%s%d", tagId, SEPARATOR, groupId, SEPARATOR, topicId);
+    }
+
+    public boolean isEnabled() {
+        return !journalFile.isBlank();
+    }
+
+    public synchronized void start(boolean resume) throws IOException {
+        close();
+        done.clear();
+        doneGroups.clear();
+        doneGroupIndexes.clear();
+        if (!isEnabled()) return;
+
+        var path = Path.of(journalFile);
+        if (resume && Files.exists(path)) {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            for (var line : lines) {
+                // tagId;groupIndex;groupId;topicId;outcome, a torn last line is ignored
+                var fields = line.split(SEPARATOR);
+                if (fields.length != 5) continue;
+
+                try {
+                    markDone(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]), CheckpointOutcome.valueOf(fields[4]));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping malformed checkpoint: {}", line);
+                }
+            }
+
+            log.info("Resuming from checkpoint journal {}, completed items: {}, last checkpoint: {}",
+                    path, done.size(), lines.isEmpty() ? "none" : lines.get(lines.size() - 1));
+        }
+
+        stream = new FileOutputStream(path.toFile(), resume);
+        writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        unsynced = 0;
+    }
+
+    private void markDone(int tagId, int groupIndex, int groupId, int topicId, CheckpointOutcome outcome) {
+        if (outcome == CheckpointOutcome.FAILED) return;
+
+        done.add(key(tagId, groupId, topicId));
+        if (groupId != ALL && topicId == ALL) {
+            doneGroups.add(groupId);
+            doneGroupIndexes.computeIfAbsent(tagId, id -> new BitSet()).set(groupIndex);
+        }
+    }
+
+    public boolean isDone(int tagId, int groupId, int topicId) {
+        return done.contains(key(tagId, groupId, topicId));
+    }
+
+    // done under any of the tags
+    public boolean isGroupDone(int groupId) {
+        return doneGroups.contains(groupId);
+    }
+
+    // index of the first group of the tag that is not done yet, tag pages before it need no reading
+    public synchronized int resumeOffset(int tagId) {
+        var indexes = doneGroupIndexes.get(tagId);
+        return indexes == null ? 0 : indexes.nextClearBit(0);
+    }
+
+    public synchronized void record(int tagId, int groupIndex, int groupId, int topicId, CheckpointOutcome outcome) {
+        if (writer == null) return;
+
+        markDone(tagId, groupIndex, groupId, topicId, outcome);
+
+        try {
+            writer.write(String.join(SEPARATOR,
+                    String.valueOf(tagId),
+                    String.valueOf(groupIndex),
+                    String.valueOf(groupId),
+                    String.valueOf(topicId),
+                    outcome.name()));
+            writer.write(System.lineSeparator());
+
+            if (++unsynced >= syncBatch) {
+                sync();
+            }
+        } catch (IOException e) {
+            log.error("Checkpoint journal write error: {}", e.getMessage());
+        }
+    }
+
+    private void sync() throws IOException {
+        writer.flush();
+        stream.getFD().sync();
+        unsynced = 0;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer == null) return;
+
+        sync();
+        writer.close();
+        writer = null;
+        stream = null;
+    }
+}
@@ -0,0 +1,183 @@
+package ru.devvault.vk.poster.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+// static exclusions from the settings plus the groups and topics that answered with permanent errors
+@Slf4j
+@Component
+public class ExclusionStore {
+
+    public static final int ALL_TOPICS = CheckpointJournal.ALL;
+
+    // access to the group denied, nothing in it is reachable
+    private static final int GROUP_ACCESS_DENIED = 203;
+
+    // groupId, topicId, errorCode, expiresAt
+    private static final int RECORD_SIZE = Integer.BYTES * 3 + Long.BYTES;
+    private static final long NEVER = Long.MAX_VALUE;
+    private static final long EMPTY = 0;
+
+    private final String exclusionsFile;
+    private final Duration ttl;
+    private final Set<Integer> errorCodes;
+    private final Set<Integer> excludedGroups;
+    private final Map<Integer, Set<Integer>> excludedGroupsTopics;
+
+    // open addressing map of key to expiry, keys are never 0 since group IDs are positive
+    private long[] keys = new long[1024];
+    private long[] expiries = new long[1024];
+    private int size;
+
+    private FileChannel channel;
+
+    public ExclusionStore(ClientProperties clientProperties) {
+        this.exclusionsFile = clientProperties.getExclusionsFile();
+        this.ttl = clientProperties.getExclusionsTtl();
+        this.errorCodes = clientProperties.getExclusionErrorCodes();
+        this.excludedGroups = clientProperties.getExcludedGroups();
+        this.excludedGroupsTopics = clientProperties.getExcludedGroupsTopics();
+    }
+
+    private static long key(int groupId, int topicId) {
+        return ((long) groupId << Integer.SIZE) | (topicId & 0xFFFFFFFFL);
+    }
+
+    private int slot(long[] table, long key) {
+        var mask = table.length - 1;
+        var index = (int) ((key * 0x9E3779B97F4A7C15L) >>> Integer.SIZE) & mask;
+        while (table[index] != EMPTY && table[index] != key) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    private void put(long key, long expiresAt) {
+        var index = slot(keys, key);
+        if (keys[index] == EMPTY) {
+            if (++size * 2 > keys.length) {
+                grow();
+                index = slot(keys, key);
+            }
+            keys[index] = key;
+        }
+
+        // static exclusions outlive anything learned
+        if (expiries[index] != NEVER) expiries[index] = expiresAt;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldExpiries = expiries;
+        keys = new long[oldKeys.length * 2];
+        expiries = new long[oldKeys.length * 2];
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+
+            var index = slot(keys, oldKeys[i]);
+            keys[index] = oldKeys[i];
+            expiries[index] = oldExpiries[i];
+        }
+    }
+
+    private boolean isActive(long key, long now) {
+        var index = slot(keys, key);
+        return keys[index] != EMPTY && expiries[index] > now;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        excludedGroups.forEach(groupId -> put(key(groupId, PostedIndex.WALL_TOPIC_ID), NEVER));
+        excludedGroupsTopics.forEach((groupId, topicIds) -> topicIds.forEach(topicId -> put(key(groupId, topicId), NEVER)));
+
+        if (exclusionsFile.isBlank()) return;
+
+        var path = Path.of(exclusionsFile);
+        var now = System.currentTimeMillis();
+        var records = 0;
+        var activeRecords = ByteBuffer.allocate(0);
+        if (Files.exists(path)) {
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            activeRecords = ByteBuffer.allocate(buffer.capacity());
+            while (buffer.remaining() >= RECORD_SIZE) {
+                var record = buffer.slice().limit(RECORD_SIZE);
+                buffer.position(buffer.position() + RECORD_SIZE);
+                records++;
+
+                var groupId = record.getInt();
+                var topicId = record.getInt();
+                record.getInt();
+                var expiresAt = record.getLong();
+                if (expiresAt > now) {
+                    put(key(groupId, topicId), expiresAt);
+                    activeRecords.put(record.flip());
+                }
+            }
+        }
+
+        var active = activeRecords.position() / RECORD_SIZE;
+        if (records > active * 2) {
+            // expired entries are dropped, so their targets get probed again
+            log.info("Compacting exclusions {}: {} records, {} active", path, records, active);
+            channel = RecordFile.rewrite(path, activeRecords.flip());
+        } else {
+            channel = RecordFile.append(path, (long) records * RECORD_SIZE);
+        }
+
+        log.info("Exclusions {} loaded, active entries: {}", path, active);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+
+        channel.force(true);
+        channel.close();
+        channel = null;
+    }
+
+    public synchronized boolean isExcluded(int groupId, int topicId) {
+        var now = System.currentTimeMillis();
+        return isActive(key(groupId, ALL_TOPICS), now) || isActive(key(groupId, topicId), now);
+    }
+
+    // records the error if its code is a permanent one for the target, returns whether it did
+    public synchronized boolean record(int groupId, int topicId, Integer errorCode) {
+        if (errorCode == null || !errorCodes.contains(errorCode)) return false;
+
+        if (errorCode == GROUP_ACCESS_DENIED) topicId = ALL_TOPICS;
+
+        var expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        put(key(groupId, topicId), expiresAt);
+        log.warn("Excluded until {} after error {}! Group: {}, topic: {}", Instant.ofEpochMilli(expiresAt), errorCode, groupId, topicId);
+
+        if (channel == null) return true;
+
+        try {
+            RecordFile.write(channel, ByteBuffer.allocate(RECORD_SIZE)
+                    .putInt(groupId)
+                    .putInt(topicId)
+                    .putInt(errorCode)
+                    .putLong(expiresAt)
+                    .flip());
+        } catch (IOException e) {
+            log.error("Exclusions write error: {}", e.getMessage());
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.devvault.vk.poster.store;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.devvault.vk.poster.enums.PlanAction;
+import ru.devvault.vk.poster.enums.PlanReason;
+import ru.devvault.vk.poster.model.PlanEntry;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// CSV work plan written by the PLAN run mode and read by EXECUTE_PLAN
+@Slf4j
+public class PlanFile implements Closeable {
+
+    private static final String SEPARATOR = ",";
+    private static final String HEADER = "tag_id,group_index,group_id,topic_id,account_id,action,reason";
+
+    private final BufferedWriter writer;
+    private final Map<Integer, Integer> postsByAccount = new ConcurrentHashMap<>();
+    private int skips;
+
+    private PlanFile(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    public static PlanFile create(Path path) throws IOException {
+        var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+        writer.newLine();
+
+        return new PlanFile(writer);
+    }
+
+    public static List<PlanEntry> read(Path path) throws IOException {
+        var entries = new ArrayList<PlanEntry>();
+        for (var line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.equals(HEADER)) continue;
+
+            var fields = line.split(SEPARATOR);
+            try {
+                entries.add(new PlanEntry(
+                        Integer.parseInt(fields[0]),
+                        Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]),
+                        PlanAction.valueOf(fields[5]),
+                        PlanReason.valueOf(fields[6])
+                ));
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                log.warn("Skipping malformed plan line: {}", line);
+            }
+        }
+
+        return entries;
+    }
+
+    public synchronized void add(PlanEntry entry) {
+        if (entry.getAction() == PlanAction.POST) {
+            postsByAccount.merge(entry.getAccountId(), 1, Integer::sum);
+        } else {
+            skips++;
+        }
+
+        try {
+            writer.write(String.join(SEPARATOR,
+                    String.valueOf(entry.getTagId()),
+                    String.valueOf(entry.getGroupIndex()),
+                    String.valueOf(entry.getGroupId()),
+                    String.valueOf(entry.getTopicId()),
+                    String.valueOf(entry.getAccountId()),
+                    entry.getAction().name(),
+                    entry.getReason().name()));
+            writer.newLine();
+        } catch (IOException e) {
+            log.error("Plan file write error: {}", e.getMessage());
+        }
+    }
+
+    public Map<Integer, Integer> getPostsByAccount() {
+        return postsByAccount;
+    }
+
+    public synchronized int getSkips() {
+        return skips;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,144 @@
+package ru.devvault.vk.poster.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class PostedIndex {
+
+    public static final int WALL_TOPIC_ID = 0;
+
+    // groupId, topicId, messageHash, postId, postedAt
+    private static final int RECORD_SIZE = Integer.BYTES * 4 + Long.BYTES;
+
+    private static class Entry {
+        private final int messageHash;
+        private final int postId;
+        private final long postedAt;
+
+        private Entry(int messageHash, int postId, long postedAt) {
+            this.messageHash = messageHash;
+            this.postId = postId;
+            this.postedAt = postedAt;
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> lastPostedAt = new ConcurrentHashMap<>();
+    private final String indexFile;
+    private final Duration freshness;
+
+    private FileChannel channel;
+
+    public PostedIndex(ClientProperties clientProperties) {
+        this.indexFile = clientProperties.getPostedIndexFile();
+        this.freshness = clientProperties.getPostedIndexFreshness();
+    }
+
+    private static long key(int groupId, int topicId) {
+        return ((long) groupId << Integer.SIZE) | (topicId & 0xFFFFFFFFL);
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (indexFile.isBlank()) {
+            log.warn("Posted index file is not set, group priorities only know the posts of this process");
+            return;
+        }
+
+        var path = Path.of(indexFile);
+        var records = 0;
+        if (Files.exists(path)) {
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (buffer.remaining() >= RECORD_SIZE) {
+                var groupId = buffer.getInt();
+                var topicId = buffer.getInt();
+                var entry = new Entry(buffer.getInt(), buffer.getInt(), buffer.getLong());
+                entries.put(key(groupId, topicId), entry);
+                lastPostedAt.merge(groupId, entry.postedAt, Math::max);
+                records++;
+            }
+        }
+
+        if (records > entries.size() * 2) {
+            log.info("Compacting posted index {}: {} records, {} entries", path, records, entries.size());
+            var buffer = ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+            entries.forEach((key, entry) -> buffer.put(encode(key, entry)));
+            channel = RecordFile.rewrite(path, buffer.flip());
+        } else {
+            channel = RecordFile.append(path, (long) records * RECORD_SIZE);
+        }
+
+        log.info("Posted index {} loaded, entries: {}", path, entries.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+
+        channel.force(true);
+        channel.close();
+        channel = null;
+    }
+
+    public boolean isFresh(int groupId, int topicId, String message) {
+        if (!isEnabled()) return false;
+
+        var entry = entries.get(key(groupId, topicId));
+        return entry != null
+                && entry.messageHash == message.hashCode()
+                && Instant.ofEpochMilli(entry.postedAt).plus(freshness).isAfter(Instant.now());
+    }
+
+    // epoch millis of the latest post to any target of the group, 0 if none is known
+    public long lastPostedAt(int groupId) {
+        return lastPostedAt.getOrDefault(groupId, 0L);
+    }
+
+    public void record(int groupId, int topicId, String message, int postId) {
+        record(groupId, topicId, message, postId, System.currentTimeMillis());
+    }
+
+    public synchronized void record(int groupId, int topicId, String message, int postId, long postedAt) {
+        // kept without the file as well, so later daemon cycles still prioritize by this process's posts
+        lastPostedAt.merge(groupId, postedAt, Math::max);
+        if (!isEnabled()) return;
+
+        var key = key(groupId, topicId);
+        var entry = new Entry(message.hashCode(), postId, postedAt);
+        entries.put(key, entry);
+        try {
+            RecordFile.write(channel, encode(key, entry));
+        } catch (IOException e) {
+            log.error("Posted index write error: {}", e.getMessage());
+        }
+    }
+
+    private static ByteBuffer encode(long key, Entry entry) {
+        return ByteBuffer.allocate(RECORD_SIZE)
+                .putInt((int) (key >>> Integer.SIZE))
+                .putInt((int) key)
+                .putInt(entry.messageHash)
+                .putInt(entry.postId)
+                .putLong(entry.postedAt)
+                .flip();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.devvault.vk.poster.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// append-only files of fixed size records
+final class RecordFile {
+
+    private RecordFile() {
+    }
+
+    // opens the file for appending after its first length bytes, a torn tail record is cut off
+    static FileChannel append(Path path, long length) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(length);
+        channel.position(channel.size());
+
+        return channel;
+    }
+
+    // replaces the file through a synced temp file next to it, a crash leaves either the old or the new records
+    static FileChannel rewrite(Path path, ByteBuffer records) throws IOException {
+        var temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, records);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return append(path, Files.size(path));
+    }
+
+    static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
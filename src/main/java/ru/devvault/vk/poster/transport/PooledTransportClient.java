@@ -0,0 +1,182 @@
+package ru.devvault.vk.poster.transport;
+
+import com.vk.api.sdk.client.ClientResponse;
+import com.vk.api.sdk.client.TransportClient;
+import com.vk.api.sdk.httpclient.HttpDeleteWithBody;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+// implements the transport itself, HttpTransportClient would build a static client and pool of its own
+public class PooledTransportClient implements TransportClient, Closeable {
+
+    private static final ContentType FORM_CONTENT_TYPE = ContentType.create("application/x-www-form-urlencoded", StandardCharsets.UTF_8);
+
+    private final CloseableHttpClient httpClient;
+
+    public PooledTransportClient(ClientProperties clientProperties) {
+        var keepAlive = clientProperties.getHttpKeepAlive().toMillis();
+        var connectRetries = clientProperties.getHttpConnectRetries();
+
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(clientProperties.getHttpMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(clientProperties.getHttpMaxConnections());
+        connectionManager.setValidateAfterInactivity((int) Math.min(keepAlive, Integer.MAX_VALUE));
+
+        var requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) clientProperties.getHttpConnectTimeout().toMillis())
+                .setSocketTimeout((int) clientProperties.getHttpReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) clientProperties.getHttpConnectTimeout().toMillis())
+                .build();
+
+        // gzip is requested and decoded by the default HttpClientBuilder interceptors
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    var duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+                })
+                .setRetryHandler((exception, executionCount, context) -> executionCount <= connectRetries
+                        && (exception instanceof ConnectException
+                        || exception instanceof ConnectTimeoutException
+                        // stale pooled connection, writes are deduplicated by guid
+                        || exception instanceof NoHttpResponseException))
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+
+        log.info("HTTP transport: max connections {}, connect timeout {}, read timeout {}, keep-alive {}",
+                clientProperties.getHttpMaxConnections(),
+                clientProperties.getHttpConnectTimeout(),
+                clientProperties.getHttpReadTimeout(),
+                clientProperties.getHttpKeepAlive());
+    }
+
+    private ClientResponse call(HttpRequestBase request) throws IOException {
+        try (var response = httpClient.execute(request)) {
+            var entity = response.getEntity();
+            var content = isNull(entity) ? "" : EntityUtils.toString(entity, StandardCharsets.UTF_8);
+
+            // the SDK looks up Content-Type by its exact name, servers may send any case
+            var headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+            for (var header : response.getAllHeaders()) {
+                headers.put(header.getName(), header.getValue());
+            }
+
+            return new ClientResponse(response.getStatusLine().getStatusCode(), content, headers);
+        }
+    }
+
+    private static <T extends HttpRequestBase> T withHeaders(T request, Header[] headers) {
+        if (!isNull(headers)) request.setHeaders(headers);
+
+        return request;
+    }
+
+    private static <T extends HttpEntityEnclosingRequestBase> T withBody(T request, String body, ContentType contentType) {
+        if (!isNull(body)) request.setEntity(new StringEntity(body, contentType));
+
+        return request;
+    }
+
+    @Override
+    public ClientResponse get(String url) throws IOException {
+        return call(new HttpGet(url));
+    }
+
+    @Override
+    public ClientResponse get(String url, String contentType) throws IOException {
+        var request = new HttpGet(url);
+        request.setHeader(HttpHeaders.CONTENT_TYPE, contentType);
+
+        return call(request);
+    }
+
+    @Override
+    public ClientResponse get(String url, Header[] headers) throws IOException {
+        return call(withHeaders(new HttpGet(url), headers));
+    }
+
+    @Override
+    public ClientResponse post(String url) throws IOException {
+        return call(new HttpPost(url));
+    }
+
+    @Override
+    public ClientResponse post(String url, String body) throws IOException {
+        return call(withBody(new HttpPost(url), body, FORM_CONTENT_TYPE));
+    }
+
+    @Override
+    public ClientResponse post(String url, String body, String contentType) throws IOException {
+        return call(withBody(new HttpPost(url), body, ContentType.parse(contentType)));
+    }
+
+    @Override
+    public ClientResponse post(String url, String body, Header[] headers) throws IOException {
+        return call(withHeaders(withBody(new HttpPost(url), body, FORM_CONTENT_TYPE), headers));
+    }
+
+    @Override
+    public ClientResponse post(String url, String fileName, File file) throws IOException {
+        var request = new HttpPost(url);
+        request.setEntity(MultipartEntityBuilder.create()
+                .addBinaryBody(fileName, file, ContentType.APPLICATION_OCTET_STREAM, file.getName())
+                .build());
+
+        return call(request);
+    }
+
+    @Override
+    public ClientResponse delete(String url) throws IOException {
+        return call(new HttpDelete(url));
+    }
+
+    @Override
+    public ClientResponse delete(String url, String body) throws IOException {
+        return call(withBody(new HttpDeleteWithBody(url), body, FORM_CONTENT_TYPE));
+    }
+
+    @Override
+    public ClientResponse delete(String url, String body, String contentType) throws IOException {
+        return call(withBody(new HttpDeleteWithBody(url), body, ContentType.parse(contentType)));
+    }
+
+    @Override
+    public ClientResponse delete(String url, String body, Header[] headers) throws IOException {
+        return call(withHeaders(withBody(new HttpDeleteWithBody(url), body, FORM_CONTENT_TYPE), headers));
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
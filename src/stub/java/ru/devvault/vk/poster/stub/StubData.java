@@ -0,0 +1,215 @@
+package ru.devvault.vk.poster.stub;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+
+// deterministic synthetic content, plus whatever was posted while the stub is running
+class StubData {
+
+    private static final int USER_ID = 1;
+    private static final int FIRST_GROUP_ID = 1_000_000;
+    private static final long NOW = 1_646_000_000L;
+
+    private static final String[] TEXTS = {
+            "Продам велосипед, состояние отличное, торг уместен",
+            "Отдам котят в хорошие руки, к лотку приучены",
+            "Сдам квартиру на длительный срок, без посредников",
+            "Куплю шины R16, летние, недорого",
+            "Ищу репетитора по математике для школьника",
+            "Требуется водитель категории C, оплата еженедельно",
+            "Потерялась собака, рыжая, откликается на кличку Рекс",
+            "Обменяю коляску на автокресло, пишите в личные сообщения"
+    };
+
+    private final StubSettings settings;
+    private final AtomicInteger nextId = new AtomicInteger(1_000_000);
+    private final Map<String, ConcurrentLinkedDeque<JsonObject>> posted = new ConcurrentHashMap<>();
+
+    StubData(StubSettings settings) {
+        this.settings = settings;
+    }
+
+    JsonArray users() {
+        var user = new JsonObject();
+        user.addProperty("id", USER_ID);
+        user.addProperty("first_name", "Пользователь");
+        user.addProperty("last_name", String.valueOf(USER_ID));
+
+        var users = new JsonArray();
+        users.add(user);
+
+        return users;
+    }
+
+    JsonObject tags() {
+        var items = new JsonArray();
+        for (var i = 1; i <= settings.tags; i++) {
+            var tag = new JsonObject();
+            tag.addProperty("id", i);
+            tag.addProperty("name", "Тег " + i);
+            items.add(tag);
+        }
+
+        return list(settings.tags, items);
+    }
+
+    JsonObject pages(int tagId, int offset, int count) {
+        var items = new JsonArray();
+        if (tagId >= 1 && tagId <= settings.tags) {
+            for (var i = offset; i < Math.min(offset + count, settings.groupsPerTag); i++) {
+                var groupId = FIRST_GROUP_ID + (tagId - 1) * settings.groupsPerTag + i;
+
+                var group = new JsonObject();
+                group.addProperty("id", groupId);
+                group.addProperty("name", "Группа " + groupId);
+                group.addProperty("screen_name", "club" + groupId);
+                group.addProperty("is_closed", 0);
+                group.addProperty("type", "group");
+
+                var tag = new JsonObject();
+                tag.addProperty("id", tagId);
+                tag.addProperty("name", "Тег " + tagId);
+                var tags = new JsonArray();
+                tags.add(tag);
+
+                var page = new JsonObject();
+                page.addProperty("type", "group");
+                page.addProperty("description", "");
+                page.add("tags", tags);
+                page.addProperty("updated_date", NOW);
+                page.add("group", group);
+                items.add(page);
+            }
+        }
+
+        return list(tagId >= 1 && tagId <= settings.tags ? settings.groupsPerTag : 0, items);
+    }
+
+    JsonObject topics(int groupId, int offset, int count) {
+        var items = new JsonArray();
+        for (var i = offset; i < Math.min(offset + count, settings.topicsPerGroup); i++) {
+            var topic = new JsonObject();
+            topic.addProperty("id", i + 1);
+            topic.addProperty("title", "Обсуждение " + (i + 1));
+            topic.addProperty("created", NOW);
+            topic.addProperty("created_by", USER_ID);
+            topic.addProperty("updated", NOW);
+            topic.addProperty("updated_by", USER_ID);
+            topic.addProperty("is_closed", 0);
+            topic.addProperty("is_fixed", 0);
+            topic.addProperty("comments", settings.itemsPerList);
+            items.add(topic);
+        }
+
+        return list(settings.topicsPerGroup, items);
+    }
+
+    JsonArray groupsById(String groupIds) {
+        var items = new JsonArray();
+        for (var groupId : groupIds.split(",")) {
+            if (groupId.isBlank()) continue;
+
+            var id = Integer.parseInt(groupId.trim());
+            // a stable pseudo-random share of the groups keeps its wall closed
+            var open = (id * 2_654_435_761L & 0xFFFF) / 65_536.0 >= settings.closedWallRate;
+
+            var group = new JsonObject();
+            group.addProperty("id", id);
+            group.addProperty("name", "Группа " + id);
+            group.addProperty("screen_name", "club" + id);
+            group.addProperty("is_closed", 0);
+            group.addProperty("type", "group");
+            group.addProperty("can_post", open ? 1 : 0);
+            group.addProperty("can_suggest", open ? 1 : 0);
+            group.addProperty("wall", open ? 1 : 3);
+            items.add(group);
+        }
+
+        return items;
+    }
+
+    JsonObject comments(int groupId, int topicId, int count) {
+        return messages(format("board:%d:%d", groupId, topicId), groupId * 31 + topicId, count, null);
+    }
+
+    JsonObject wallPosts(int ownerId, String filter, int count) {
+        var postType = "suggests".equals(filter) ? "suggest" : "post";
+        return messages(format("wall:%d:%s", ownerId, postType), ownerId * 17, count, postType);
+    }
+
+    JsonObject searchWallPosts(int ownerId, String query, int count) {
+        var needle = query.toLowerCase(Locale.ROOT);
+        var items = new JsonArray();
+        // published posts and suggests alike, whichever way the stub stored the app's posts
+        var all = wallPosts(ownerId, "all", Integer.MAX_VALUE).getAsJsonArray("items");
+        all.addAll(wallPosts(ownerId, "suggests", Integer.MAX_VALUE).getAsJsonArray("items"));
+        for (var element : all) {
+            var text = element.getAsJsonObject().get("text").getAsString();
+            if (items.size() < count && text.toLowerCase(Locale.ROOT).contains(needle)) {
+                items.add(element);
+            }
+        }
+
+        return list(items.size(), items);
+    }
+
+    int createComment(int groupId, int topicId, String message) {
+        return post(format("board:%d:%d", groupId, topicId), message, null);
+    }
+
+    int createWallPost(int ownerId, String message) {
+        // posts of non-admins land in suggests, admins publish right away
+        var postType = settings.suggestPosts ? "suggest" : "post";
+        return post(format("wall:%d:%s", ownerId, postType), message, postType);
+    }
+
+    private int post(String key, String message, String postType) {
+        var id = nextId.incrementAndGet();
+        posted.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>())
+                .addFirst(message(id, message, postType));
+
+        return id;
+    }
+
+    private JsonObject messages(String key, int seed, int count, String postType) {
+        var items = new JsonArray();
+        for (var message : posted.getOrDefault(key, new ConcurrentLinkedDeque<>())) {
+            if (items.size() == count) break;
+            items.add(message);
+        }
+        for (var i = 0; items.size() < Math.min(count, settings.itemsPerList); i++) {
+            items.add(message(i + 1, TEXTS[Math.floorMod(seed + i, TEXTS.length)], postType));
+        }
+
+        return list(settings.itemsPerList + posted.getOrDefault(key, new ConcurrentLinkedDeque<>()).size(), items);
+    }
+
+    private static JsonObject message(int id, String text, String postType) {
+        var message = new JsonObject();
+        message.addProperty("id", id);
+        message.addProperty("from_id", USER_ID);
+        message.addProperty("date", NOW);
+        message.addProperty("text", text);
+        if (postType != null) {
+            message.addProperty("post_type", postType);
+        }
+
+        return message;
+    }
+
+    private static JsonObject list(int count, JsonArray items) {
+        var list = new JsonObject();
+        list.addProperty("count", count);
+        list.add("items", items);
+
+        return list;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.devvault.vk.poster.stub;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// --name=value arguments, see README
+class StubSettings {
+
+    final String host;
+    final int port;
+    final int threads;
+    final int tags;
+    final int groupsPerTag;
+    final int topicsPerGroup;
+    final int itemsPerList;
+    final long latencyMillis;
+    final long latencyJitterMillis;
+    final double rateLimitRate;
+    final double captchaRate;
+    final boolean suggestPosts;
+    final double closedWallRate;
+
+    StubSettings(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            var separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        host = values.getOrDefault("host", "127.0.0.1");
+        port = Integer.parseInt(values.getOrDefault("port", "8780"));
+        threads = Integer.parseInt(values.getOrDefault("threads", "16"));
+        tags = Integer.parseInt(values.getOrDefault("tags", "2"));
+        groupsPerTag = Integer.parseInt(values.getOrDefault("groupsPerTag", "500"));
+        topicsPerGroup = Integer.parseInt(values.getOrDefault("topicsPerGroup", "5"));
+        itemsPerList = Integer.parseInt(values.getOrDefault("itemsPerList", "20"));
+        latencyMillis = Long.parseLong(values.getOrDefault("latency", "50"));
+        latencyJitterMillis = Long.parseLong(values.getOrDefault("latencyJitter", "20"));
+        rateLimitRate = Double.parseDouble(values.getOrDefault("rateLimitRate", "0.01"));
+        captchaRate = Double.parseDouble(values.getOrDefault("captchaRate", "0.001"));
+        suggestPosts = Boolean.parseBoolean(values.getOrDefault("suggestPosts", "false"));
+        closedWallRate = Double.parseDouble(values.getOrDefault("closedWallRate", "0.1"));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "tags=%d, groupsPerTag=%d, topicsPerGroup=%d, itemsPerList=%d, latency=%d±%d ms, rateLimitRate=%s, captchaRate=%s, suggestPosts=%s, closedWallRate=%s",
+                tags, groupsPerTag, topicsPerGroup, itemsPerList, latencyMillis, latencyJitterMillis, rateLimitRate, captchaRate, suggestPosts, closedWallRate
+        );
+    }
+}
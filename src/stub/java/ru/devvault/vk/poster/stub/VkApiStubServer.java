@@ -0,0 +1,235 @@
+package ru.devvault.vk.poster.stub;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// stand-in for api.vk.com with the methods VkService uses, see "Нагрузочный стенд" in README
+public class VkApiStubServer {
+
+    private static final String PATH = "/method/";
+
+    private final StubSettings settings;
+    private final StubData data;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong captchaSids = new AtomicLong();
+
+    private static class StubApiException extends RuntimeException {
+        private final int code;
+
+        StubApiException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    VkApiStubServer(StubSettings settings) {
+        this.settings = settings;
+        this.data = new StubData(settings);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var settings = new StubSettings(args);
+        var server = HttpServer.create(new InetSocketAddress(settings.host, settings.port), 0);
+        server.setExecutor(Executors.newFixedThreadPool(settings.threads));
+        server.createContext(PATH, new VkApiStubServer(settings)::handle);
+        server.start();
+
+        System.out.printf("VK API stub listening on http://%s:%d%s (%s)%n", settings.host, settings.port, PATH, settings);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var method = exchange.getRequestURI().getPath().substring(PATH.length());
+        var params = params(exchange);
+
+        var envelope = new JsonObject();
+        try {
+            delay();
+            injectErrors(method, params);
+            envelope.add("response", call(method, params));
+        } catch (StubApiException e) {
+            envelope.add("error", error(e, method, params));
+        } catch (RuntimeException e) {
+            envelope.add("error", error(new StubApiException(100, "One of the parameters specified was missing or invalid: " + e.getMessage()), method, params));
+        }
+
+        var bytes = envelope.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+
+        var count = requests.incrementAndGet();
+        if (count % 1000 == 0) {
+            System.out.printf("%d requests served%n", count);
+        }
+    }
+
+    private void delay() {
+        var jitter = settings.latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(settings.latencyJitterMillis + 1) : 0;
+        try {
+            Thread.sleep(settings.latencyMillis + jitter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void injectErrors(String method, Map<String, String> params) {
+        var random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.rateLimitRate) {
+            throw new StubApiException(6, "Too many requests per second");
+        }
+
+        // a solved captcha is always accepted
+        if (!params.containsKey("captcha_key") && random.nextDouble() < settings.captchaRate) {
+            throw new StubApiException(14, "Captcha needed");
+        }
+    }
+
+    private JsonElement call(String method, Map<String, String> params) {
+        switch (method) {
+            case "execute":
+                return execute(params.get("code"));
+            case "fave.getTags":
+                return data.tags();
+            case "fave.getPages":
+                return data.pages(intParam(params, "tag_id", 0), intParam(params, "offset", 0), intParam(params, "count", 50));
+            case "board.getTopics":
+                return data.topics(intParam(params, "group_id", 0), intParam(params, "offset", 0), intParam(params, "count", 40));
+            case "board.getComments":
+                return data.comments(intParam(params, "group_id", 0), intParam(params, "topic_id", 0), intParam(params, "count", 20));
+            case "board.createComment":
+                return new JsonPrimitive(data.createComment(intParam(params, "group_id", 0), intParam(params, "topic_id", 0), params.get("message")));
+            case "groups.getById":
+                return data.groupsById(params.getOrDefault("group_ids", ""));
+            case "users.get":
+                return data.users();
+            case "wall.get":
+                return data.wallPosts(intParam(params, "owner_id", 0), params.getOrDefault("filter", "all"), intParam(params, "count", 20));
+            case "wall.search":
+                return data.searchWallPosts(intParam(params, "owner_id", 0), params.getOrDefault("query", ""), intParam(params, "count", 20));
+            case "wall.post":
+                var response = new JsonObject();
+                response.addProperty("post_id", data.createWallPost(intParam(params, "owner_id", 0), params.get("message")));
+                return response;
+            default:
+                throw new StubApiException(3, "Unknown method passed");
+        }
+    }
+
+    // supports the "return [API.method({...}),...];" scripts built by VkService
+    private JsonElement execute(String code) {
+        var results = new JsonArray();
+        var position = 0;
+        while ((position = code.indexOf("API.", position)) >= 0) {
+            var open = code.indexOf('(', position);
+            var method = code.substring(position + 4, open);
+            var close = closingBrace(code, open + 1);
+            var params = new HashMap<String, String>();
+            JsonParser.parseString(code.substring(open + 1, close + 1)).getAsJsonObject().entrySet()
+                    .forEach(entry -> params.put(entry.getKey(), entry.getValue().getAsString()));
+
+            try {
+                results.add(call(method, params));
+            } catch (StubApiException | IllegalArgumentException e) {
+                results.add(false);
+            }
+
+            position = close;
+        }
+
+        return results;
+    }
+
+    private static int closingBrace(String code, int from) {
+        var depth = 0;
+        var quoted = false;
+        for (var i = from; i < code.length(); i++) {
+            var c = code.charAt(i);
+            if (quoted) {
+                if (c == '\\') i++;
+                else if (c == '"') quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Unbalanced execute code");
+    }
+
+    private JsonObject error(StubApiException e, String method, Map<String, String> params) {
+        var error = new JsonObject();
+        error.addProperty("error_code", e.code);
+        error.addProperty("error_msg", e.getMessage());
+        if (e.code == 14) {
+            var sid = String.valueOf(captchaSids.incrementAndGet());
+            error.addProperty("captcha_sid", sid);
+            error.addProperty("captcha_img", "https://api.vk.com/captcha.php?sid=" + sid);
+        }
+
+        var requestParams = new JsonArray();
+        var methodParam = new JsonObject();
+        methodParam.addProperty("key", "method");
+        methodParam.addProperty("value", method);
+        requestParams.add(methodParam);
+        params.forEach((key, value) -> {
+            if ("access_token".equals(key) || "code".equals(key)) return;
+
+            var param = new JsonObject();
+            param.addProperty("key", key);
+            param.addProperty("value", value);
+            requestParams.add(param);
+        });
+        error.add("request_params", requestParams);
+
+        return error;
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        var params = new HashMap<String, String>();
+        parse(exchange.getRequestURI().getRawQuery(), params);
+        try (var body = exchange.getRequestBody()) {
+            parse(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+        }
+
+        return params;
+    }
+
+    private static void parse(String query, Map<String, String> params) {
+        if (query == null || query.isEmpty()) return;
+
+        for (var pair : query.split("&")) {
+            var separator = pair.indexOf('=');
+            if (separator < 0) continue;
+
+            params.put(
+                    URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8)
+            );
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        var value = params.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.devvault.vk.poster.account;
+
+import com.vk.api.sdk.client.actors.UserActor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountRingTest {
+
+    private static final int GROUPS = 1000;
+
+    private static VkAccount account(int userId) {
+        return new VkAccount(new UserActor(userId, "token" + userId), null);
+    }
+
+    private static Map<Integer, VkAccount> assign(AccountRing ring) {
+        var owners = new HashMap<Integer, VkAccount>();
+        for (var groupId = 0; groupId < GROUPS; groupId++) {
+            owners.put(groupId, ring.forGroup(groupId).orElseThrow());
+        }
+
+        return owners;
+    }
+
+    @Test
+    void groupsAreSpreadOverAllAccounts() {
+        var accounts = List.of(account(1), account(2), account(3));
+        var owners = assign(new AccountRing(accounts));
+
+        var counts = owners.values().stream().collect(Collectors.groupingBy(VkAccount::getId, Collectors.counting()));
+        assertThat(counts).containsOnlyKeys(1, 2, 3);
+        counts.values().forEach(count -> assertThat(count).isBetween(200L, 500L));
+    }
+
+    @Test
+    void revokedAccountGroupsMoveAndOthersStay() {
+        var accounts = List.of(account(1), account(2), account(3));
+        var ring = new AccountRing(accounts);
+        var before = assign(ring);
+
+        accounts.get(1).revoke();
+        var after = assign(ring);
+
+        IntStream.range(0, GROUPS).forEach(groupId -> {
+            if (before.get(groupId).getId() == 2) {
+                assertThat(after.get(groupId).getId()).isIn(1, 3);
+            } else {
+                assertThat(after.get(groupId)).isSameAs(before.get(groupId));
+            }
+        });
+    }
+
+    @Test
+    void restoredAccountGetsItsGroupsBack() {
+        var accounts = List.of(account(1), account(2));
+        var ring = new AccountRing(accounts);
+        var before = assign(ring);
+
+        accounts.get(0).revoke();
+        assertThat(ring.primary()).containsSame(accounts.get(1));
+
+        accounts.get(0).restore();
+        assertThat(assign(ring)).isEqualTo(before);
+        assertThat(ring.primary()).containsSame(accounts.get(0));
+    }
+
+    @Test
+    void noAccountWhenAllRevoked() {
+        var accounts = List.of(account(1), account(2));
+        var ring = new AccountRing(accounts);
+        accounts.forEach(VkAccount::revoke);
+
+        assertThat(ring.forGroup(42)).isEmpty();
+        assertThat(ring.primary()).isEmpty();
+    }
+}
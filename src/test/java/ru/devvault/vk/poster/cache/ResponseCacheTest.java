@@ -0,0 +1,98 @@
+package ru.devvault.vk.poster.cache;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    private static ResponseCache cache(int maxEntries, Path directory) throws IOException {
+        var clientProperties = new ClientProperties();
+        clientProperties.setCacheMaxEntries(maxEntries);
+        clientProperties.setCacheDirectory(directory == null ? "" : directory.toString());
+
+        return new ResponseCache(clientProperties, new Gson());
+    }
+
+    @Test
+    void loadsOnMissAndServesHits() throws IOException {
+        var cache = cache(10, null);
+        var loads = new AtomicInteger();
+
+        assertThat(cache.<String>get("key", String.class, TTL, () -> "value" + loads.incrementAndGet())).isEqualTo("value1");
+        assertThat(cache.<String>get("key", String.class, TTL, () -> "value" + loads.incrementAndGet())).isEqualTo("value1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsMissed() throws IOException, InterruptedException {
+        var cache = cache(10, directory);
+        cache.put("key", "value", Duration.ofMillis(50));
+        Thread.sleep(100);
+
+        assertThat(cache.getIfPresent("key", String.class, TTL)).isEmpty();
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        var cache = cache(2, null);
+        cache.put("first", "1", TTL);
+        cache.put("second", "2", TTL);
+        cache.getIfPresent("first", String.class, TTL);
+        cache.put("third", "3", TTL);
+
+        assertThat(cache.getIfPresent("first", String.class, TTL)).contains("1");
+        assertThat(cache.getIfPresent("second", String.class, TTL)).isEmpty();
+        assertThat(cache.getIfPresent("third", String.class, TTL)).contains("3");
+    }
+
+    @Test
+    void diskEntrySurvivesRestart() throws IOException {
+        cache(10, directory).put("fave.getTags:1", "value", TTL);
+
+        var restarted = cache(10, directory);
+
+        assertThat(restarted.getIfPresent("fave.getTags:1", String.class, TTL)).contains("value");
+        assertThat(restarted.getHits()).isEqualTo(1);
+        assertThat(restarted.getMisses()).isZero();
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() throws IOException {
+        var cache = cache(10, directory);
+        var loads = new AtomicInteger();
+
+        cache.get("key", String.class, Duration.ZERO, () -> "value" + loads.incrementAndGet());
+        cache.get("key", String.class, Duration.ZERO, () -> "value" + loads.incrementAndGet());
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getIfPresent("key", String.class, TTL)).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void failedLoadIsNotCached() throws IOException {
+        var cache = cache(10, null);
+
+        cache.get("key", String.class, TTL, () -> null);
+
+        assertThat(cache.<String>get("key", String.class, TTL, () -> "value")).isEqualTo("value");
+    }
+}
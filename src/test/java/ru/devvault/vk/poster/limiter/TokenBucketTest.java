@@ -0,0 +1,43 @@
+package ru.devvault.vk.poster.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static long elapsedMillis(TokenBucket bucket, int permits) throws InterruptedException {
+        var start = System.nanoTime();
+        for (var i = 0; i < permits; i++) {
+            bucket.acquire();
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Test
+    void burstUpToCapacityIsNotDelayed() throws InterruptedException {
+        var bucket = new TokenBucket(50);
+
+        assertThat(elapsedMillis(bucket, 50)).isLessThan(100);
+    }
+
+    @Test
+    void permitsOverCapacityArePaced() throws InterruptedException {
+        var bucket = new TokenBucket(20);
+        elapsedMillis(bucket, 20);
+
+        // 5 more permits at 20/s need about 250 ms
+        assertThat(elapsedMillis(bucket, 5)).isBetween(200L, 1000L);
+    }
+
+    @Test
+    void slowRateKeepsSinglePermitCapacity() throws InterruptedException {
+        var bucket = new TokenBucket(4);
+        elapsedMillis(bucket, 4);
+
+        assertThat(elapsedMillis(bucket, 1)).isGreaterThanOrEqualTo(200);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.devvault.vk.poster.limiter;
+
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.RequestType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VkRateLimiterTest {
+
+    private static VkRateLimiter limiter() {
+        var clientProperties = new ClientProperties();
+        clientProperties.setReadRequestsPerSecond(10.0);
+        clientProperties.setWriteRequestsPerSecond(2.0);
+
+        return new VkRateLimiter(clientProperties);
+    }
+
+    @Test
+    void throttleHalvesRateDownToFloor() {
+        var limiter = limiter();
+
+        limiter.throttle(RequestType.READ);
+        assertThat(limiter.getRate(RequestType.READ)).isEqualTo(5.0);
+
+        for (var i = 0; i < 10; i++) {
+            limiter.throttle(RequestType.READ);
+        }
+        // never below a tenth of the configured rate
+        assertThat(limiter.getRate(RequestType.READ)).isCloseTo(1.0, within(1e-9));
+        // the write bucket is throttled on its own
+        assertThat(limiter.getRate(RequestType.WRITE)).isEqualTo(2.0);
+    }
+
+    @Test
+    void recoverStepsBackToConfiguredRate() {
+        var limiter = limiter();
+        limiter.throttle(RequestType.READ);
+
+        limiter.recover(RequestType.READ);
+        assertThat(limiter.getRate(RequestType.READ)).isCloseTo(5.5, within(1e-9));
+
+        for (var i = 0; i < 20; i++) {
+            limiter.recover(RequestType.READ);
+        }
+        assertThat(limiter.getRate(RequestType.READ)).isEqualTo(10.0);
+    }
+
+    @Test
+    void recoverNeverExceedsConfiguredRate() {
+        var limiter = limiter();
+
+        limiter.recover(RequestType.WRITE);
+
+        assertThat(limiter.getRate(RequestType.WRITE)).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.devvault.vk.poster.matcher;
+
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.model.TextItem;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageMatcherTest {
+
+    private static MessageMatcher matcher(String query, String... queries) {
+        var clientProperties = new ClientProperties();
+        clientProperties.setPostMessageQuery(query);
+        clientProperties.setPostMessageQueries(List.of(queries));
+
+        return new MessageMatcher(clientProperties);
+    }
+
+    private static TextItem item(int id, String text) {
+        var item = new TextItem();
+        item.setId(id);
+        item.setText(text);
+
+        return item;
+    }
+
+    @Test
+    void ignoresCaseSpacingAndPunctuation() {
+        var matcher = matcher("Продам велосипед");
+
+        assertThat(matcher.match("ПРОДАМ, велосипед!!!")).isEqualTo(OptionalInt.of(0));
+        assertThat(matcher.match("продамвелосипед 🚲")).isEqualTo(OptionalInt.of(0));
+        assertThat(matcher.match("куплю велосипед")).isEmpty();
+    }
+
+    @Test
+    void foldsYoToYe() {
+        assertThat(matcher("ёлка").match("Продаю елку")).isEmpty();
+        assertThat(matcher("ёлка").match("Продаю ЕЛКА")).isEqualTo(OptionalInt.of(0));
+    }
+
+    @Test
+    void findsQueryInsideFailedPrefix() {
+        // "abd" fails after "ab", the automaton has to fall back to "bc" without rescanning
+        var matcher = matcher("abd", "bc");
+
+        assertThat(matcher.match("xabcx")).isEqualTo(OptionalInt.of(1));
+        assertThat(matcher.match("xabdx")).isEqualTo(OptionalInt.of(0));
+    }
+
+    @Test
+    void deduplicatesQueries() {
+        var matcher = matcher("котята", "котята", "", "щенки");
+
+        assertThat(matcher.getQueries()).containsExactly("котята", "щенки");
+        assertThat(matcher.match("отдам щенков")).isEmpty();
+        assertThat(matcher.match("отдам щенки")).isEqualTo(OptionalInt.of(1));
+    }
+
+    @Test
+    void rejectsQueriesWithoutLetters() {
+        assertThatThrownBy(() -> matcher("!!! ???")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void findsFirstMatchingItem() {
+        var matcher = matcher("сдам квартиру");
+        var items = List.of(item(1, null), item(2, "сдам гараж"), item(3, "Сдам квартиру на длительный срок"), item(4, "сдам квартиру"));
+
+        assertThat(matcher.find(items)).map(TextItem::getId).contains(3);
+        assertThat(matcher.find(items.subList(0, 2))).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.devvault.vk.poster.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTest {
+
+    @Test
+    void runsOnSuccessOnceEverythingIsReleased() {
+        var done = new AtomicInteger();
+        var completion = new Completion(done::incrementAndGet, null);
+        completion.hold();
+        completion.hold();
+
+        completion.release(true);
+        completion.release(true);
+        assertThat(done).hasValue(0);
+
+        completion.release(true);
+        assertThat(done).hasValue(1);
+    }
+
+    @Test
+    void failureSkipsOnSuccess() {
+        var done = new AtomicInteger();
+        var completion = new Completion(done::incrementAndGet, null);
+        completion.hold();
+
+        completion.release(false);
+        completion.release(true);
+
+        assertThat(done).hasValue(0);
+    }
+
+    @Test
+    void parentWaitsForChildren() {
+        var tagDone = new AtomicInteger();
+        var tag = new Completion(tagDone::incrementAndGet, null);
+        var first = new Completion(() -> {}, tag);
+        var second = new Completion(() -> {}, tag);
+
+        tag.release(true);
+        first.release(true);
+        assertThat(tagDone).hasValue(0);
+
+        second.release(true);
+        assertThat(tagDone).hasValue(1);
+    }
+
+    @Test
+    void childFailureFailsParent() {
+        var tagDone = new AtomicInteger();
+        var groupDone = new AtomicInteger();
+        var tag = new Completion(tagDone::incrementAndGet, null);
+        var failed = new Completion(() -> {}, tag);
+        var succeeded = new Completion(groupDone::incrementAndGet, tag);
+
+        failed.release(false);
+        succeeded.release(true);
+        tag.release(true);
+
+        assertThat(groupDone).hasValue(1);
+        assertThat(tagDone).hasValue(0);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.devvault.vk.poster.service;
+
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.model.ItemsPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagedIteratorTest {
+
+    private static final int TOTAL = 7;
+
+    private final List<Integer> loadedOffsets = new CopyOnWriteArrayList<>();
+
+    // pages of the numbers from 0 to TOTAL, loaded on the calling thread
+    private ItemsPage<Integer> load(int offset, int count) {
+        loadedOffsets.add(offset);
+        var items = IntStream.range(offset, Math.min(offset + count, TOTAL)).boxed().collect(Collectors.toList());
+
+        return new ItemsPage<>(TOTAL, items);
+    }
+
+    private static <T> List<T> drain(PagedIterator<T> iterator) {
+        var items = new ArrayList<T>();
+        iterator.forEachRemaining(items::add);
+
+        return items;
+    }
+
+    @Test
+    void readsAllPagesFromOffset() {
+        var iterator = new PagedIterator<>(this::load, 2, 3, Runnable::run);
+
+        assertThat(drain(iterator)).containsExactly(2, 3, 4, 5, 6);
+        // no request past the known count
+        assertThat(loadedOffsets).containsExactly(2, 5);
+        assertThat(iterator.failed()).isFalse();
+    }
+
+    @Test
+    void prefetchesNextPageWhileCurrentIsRead() {
+        var iterator = new PagedIterator<>(this::load, 0, 3, Runnable::run);
+
+        assertThat(iterator.next()).isZero();
+        // the first page is being consumed, the second is already requested
+        assertThat(loadedOffsets).containsExactly(0, 3);
+    }
+
+    @Test
+    void failedPageIsToldApartFromEndOfData() {
+        PagedIterator.PageLoader<Integer> loader = (offset, count) -> offset == 0 ? load(offset, count) : null;
+        var iterator = new PagedIterator<>(loader, 0, 3, Runnable::run);
+
+        assertThat(drain(iterator)).containsExactly(0, 1, 2);
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(iterator.failed()).isTrue();
+    }
+
+    @Test
+    void emptyPageEndsIteration() {
+        PagedIterator.PageLoader<Integer> loader = (offset, count) -> new ItemsPage<>(null, List.of());
+        var iterator = new PagedIterator<>(loader, 0, 3, Runnable::run);
+
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(iterator.failed()).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.Gson;
+import com.vk.api.sdk.objects.UserAuthResponse;
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.error.MyApiException;
+import ru.devvault.vk.poster.error.ResponseDecodeException;
+import ru.devvault.vk.poster.model.TextItemsResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseDecoderTest {
+
+    private final ResponseDecoder responseDecoder = new ResponseDecoder(new Gson());
+
+    @Test
+    void decodesResponseEnvelope() throws Exception {
+        TextItemsResponse response = responseDecoder.decode(
+                "{\"response\":{\"count\":2,\"items\":[{\"id\":1,\"from_id\":10,\"text\":\"a\"},{\"id\":2,\"text\":\"b\"}]}}",
+                TextItemsResponse.class
+        );
+
+        assertThat(response.getCount()).isEqualTo(2);
+        assertThat(response.getItems()).extracting("text").containsExactly("a", "b");
+        assertThat(response.getItems().get(0).getFromId()).isEqualTo(10);
+    }
+
+    @Test
+    void decodesResponseWithoutEnvelope() throws Exception {
+        UserAuthResponse response = responseDecoder.decode(
+                "{\"access_token\":\"token\",\"user_id\":7}",
+                UserAuthResponse.class
+        );
+
+        assertThat(response.getAccessToken()).isEqualTo("token");
+        assertThat(response.getUserId()).isEqualTo(7);
+    }
+
+    @Test
+    void decodesBatchWithFailedCalls() throws Exception {
+        var items = responseDecoder.<TextItemsResponse>decodeBatch(
+                "{\"response\":[{\"count\":1,\"items\":[{\"id\":1}]},false,{\"count\":0}],\"execute_errors\":[{}]}",
+                TextItemsResponse.class
+        );
+
+        assertThat(items).hasSize(3);
+        assertThat(items.get(0).getItems()).hasSize(1);
+        assertThat(items.get(1)).isNull();
+        assertThat(items.get(2).getItems()).isEmpty();
+    }
+
+    @Test
+    void throwsApiErrorWithDetails() {
+        assertThatThrownBy(() -> responseDecoder.decode(
+                "{\"error\":{\"error_code\":14,\"error_msg\":\"Captcha needed\",\"captcha_sid\":\"sid\",\"captcha_img\":\"img\",\"request_params\":[]}}",
+                TextItemsResponse.class
+        ))
+                .isInstanceOfSatisfying(MyApiException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo(14);
+                    assertThat(e.getError().getCaptchaSid()).isEqualTo("sid");
+                });
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThatThrownBy(() -> responseDecoder.decode("{\"response\":{\"count\":", TextItemsResponse.class))
+                .isInstanceOf(ResponseDecodeException.class);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.devvault.vk.poster.service;
+
+import com.google.gson.Gson;
+import com.vk.api.sdk.client.ClientResponse;
+import com.vk.api.sdk.client.TransportClient;
+import com.vk.api.sdk.client.VkApiClient;
+import com.vk.api.sdk.objects.groups.GroupFull;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.cache.ResponseCache;
+import ru.devvault.vk.poster.captcha.ConsoleCaptchaResolver;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.metrics.VkMetrics;
+import ru.devvault.vk.poster.store.ExclusionStore;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VkServiceTest {
+
+    private static final Map<String, String> JSON_HEADERS = Map.of("Content-Type", "application/json; charset=utf-8");
+
+    private final TransportClient transportClient = mock(TransportClient.class);
+    private final List<String> scripts = new ArrayList<>();
+    private VkService vkService;
+    private RequestContext context;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        var clientProperties = new ClientProperties();
+        clientProperties.setReadRequestsPerSecond(1000.0);
+        clientProperties.setWriteRequestsPerSecond(1000.0);
+        clientProperties.setCacheGroupTopicsTtl(Duration.ZERO);
+
+        var gson = new Gson();
+        var responseCache = new ResponseCache(clientProperties, gson);
+        vkService = new VkService(
+                gson,
+                new ResponseDecoder(gson),
+                new VkApiClient(transportClient),
+                new Scanner(""),
+                responseCache,
+                new RetryPolicy(clientProperties),
+                new ConsoleCaptchaResolver(new Scanner("")),
+                clientProperties,
+                new VkMetrics(new SimpleMeterRegistry(), responseCache),
+                new ExclusionStore(clientProperties)
+        );
+        context = RequestContext.of(vkService.authorize(1, "", 1, "token").orElseThrow(), clientProperties);
+    }
+
+    // answers every execute request with the response built for its index
+    private void respond(IntFunction<String> responses) throws IOException {
+        when(transportClient.post(anyString(), anyString(), any(Header[].class))).thenAnswer(invocation -> {
+            String body = invocation.getArgument(1);
+            var code = URLDecoder.decode(body.replaceAll(".*code=([^&]*).*", "$1"), StandardCharsets.UTF_8);
+            scripts.add(code);
+
+            return new ClientResponse(200, responses.apply(scripts.size() - 1), JSON_HEADERS);
+        });
+    }
+
+    private static String topics(int from, int count, int failed) {
+        return IntStream.range(from, from + count)
+                .mapToObj(groupId -> groupId == failed ? "false" : "{\"count\":1,\"items\":[{\"id\":" + groupId + "}]}")
+                .collect(Collectors.joining(",", "{\"response\":[", "]}"));
+    }
+
+    private static List<GroupFull> groups(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(groupId -> {
+                    var group = new GroupFull();
+                    group.setId(groupId);
+                    return group;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void splitsBatchIntoExecuteChunksAndMergesResults() throws IOException {
+        respond(chunk -> chunk == 0 ? topics(0, 25, 3) : topics(25, 5, -1));
+
+        var topics = vkService.getGroupsTopics(context, groups(30));
+
+        assertThat(scripts).hasSize(2);
+        assertThat(scripts.get(0).split("API\\.")).hasSize(26);
+        assertThat(scripts.get(1).split("API\\.")).hasSize(6);
+        // the call answered with false is missing, the rest keep their groups
+        assertThat(topics).hasSize(29).doesNotContainKey(3);
+        assertThat(topics.get(27).get(0).getId()).isEqualTo(27);
+    }
+
+    @Test
+    void failedChunkKeepsResultsOfOthers() throws IOException {
+        respond(chunk -> chunk == 0
+                ? "{\"error\":{\"error_code\":15,\"error_msg\":\"Access denied\",\"request_params\":[]}}"
+                : topics(25, 5, -1));
+
+        var topics = vkService.getGroupsTopics(context, groups(30));
+
+        assertThat(scripts).hasSize(2);
+        assertThat(topics.keySet()).containsExactlyInAnyOrder(25, 26, 27, 28, 29);
+    }
+}
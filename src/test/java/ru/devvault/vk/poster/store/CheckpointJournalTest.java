@@ -0,0 +1,88 @@
+package ru.devvault.vk.poster.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+import ru.devvault.vk.poster.enums.CheckpointOutcome;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointJournalTest {
+
+    private static final int TAG_ID = 7;
+
+    @TempDir
+    Path directory;
+
+    private CheckpointJournal journal(Path file) {
+        var clientProperties = new ClientProperties();
+        clientProperties.setCheckpointFile(file.toString());
+        clientProperties.setCheckpointSyncBatch(1);
+
+        return new CheckpointJournal(clientProperties);
+    }
+
+    private static void done(CheckpointJournal journal, int groupIndex, int groupId) {
+        journal.record(TAG_ID, groupIndex, groupId, CheckpointJournal.ALL, CheckpointOutcome.DONE);
+    }
+
+    @Test
+    void resumesFromFirstUnfinishedGroup() throws IOException {
+        var file = directory.resolve("checkpoint.log");
+        var journal = journal(file);
+        journal.start(false);
+        done(journal, 0, 100);
+        done(journal, 1, 101);
+        journal.record(TAG_ID, 2, 102, 5, CheckpointOutcome.POSTED);
+        journal.record(TAG_ID, 2, 102, CheckpointJournal.ALL, CheckpointOutcome.FAILED);
+        done(journal, 3, 103);
+        journal.close();
+
+        var resumed = journal(file);
+        resumed.start(true);
+
+        // the failed group is the first gap, the one after it is still known to be done
+        assertThat(resumed.resumeOffset(TAG_ID)).isEqualTo(2);
+        assertThat(resumed.resumeOffset(TAG_ID + 1)).isZero();
+        assertThat(resumed.isDone(TAG_ID, 103, CheckpointJournal.ALL)).isTrue();
+        assertThat(resumed.isDone(TAG_ID, 102, CheckpointJournal.ALL)).isFalse();
+        assertThat(resumed.isDone(TAG_ID, 102, 5)).isTrue();
+        assertThat(resumed.isGroupDone(101)).isTrue();
+    }
+
+    @Test
+    void freshStartIgnoresJournal() throws IOException {
+        var file = directory.resolve("checkpoint.log");
+        var journal = journal(file);
+        journal.start(false);
+        done(journal, 0, 100);
+        journal.close();
+
+        var restarted = journal(file);
+        restarted.start(false);
+
+        assertThat(restarted.resumeOffset(TAG_ID)).isZero();
+        assertThat(restarted.isDone(TAG_ID, 100, CheckpointJournal.ALL)).isFalse();
+    }
+
+    @Test
+    void tornLastLineIsSkipped() throws IOException {
+        var file = directory.resolve("checkpoint.log");
+        var journal = journal(file);
+        journal.start(false);
+        done(journal, 0, 100);
+        journal.close();
+        Files.writeString(file, TAG_ID + ";1;10", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        var resumed = journal(file);
+        resumed.start(true);
+
+        assertThat(resumed.resumeOffset(TAG_ID)).isEqualTo(1);
+    }
+}
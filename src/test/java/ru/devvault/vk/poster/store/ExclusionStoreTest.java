@@ -0,0 +1,121 @@
+package ru.devvault.vk.poster.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExclusionStoreTest {
+
+    // groupId, topicId, errorCode, expiresAt
+    private static final int RECORD_SIZE = 20;
+
+    @TempDir
+    Path directory;
+
+    private static ExclusionStore open(Path file, Duration ttl) throws IOException {
+        var clientProperties = new ClientProperties();
+        clientProperties.setExclusionsFile(file == null ? "" : file.toString());
+        clientProperties.setExclusionsTtl(ttl);
+        clientProperties.setExcludedGroups(Set.of(10));
+        clientProperties.setExcludedGroupsTopics(Map.of(20, Set.of(5)));
+
+        var store = new ExclusionStore(clientProperties);
+        store.open();
+
+        return store;
+    }
+
+    @Test
+    void staticExclusions() throws IOException {
+        var store = open(null, Duration.ofDays(1));
+
+        assertThat(store.isExcluded(10, PostedIndex.WALL_TOPIC_ID)).isTrue();
+        assertThat(store.isExcluded(20, 5)).isTrue();
+        assertThat(store.isExcluded(20, 6)).isFalse();
+        assertThat(store.isExcluded(30, PostedIndex.WALL_TOPIC_ID)).isFalse();
+    }
+
+    @Test
+    void recordsOnlyPermanentErrors() throws IOException {
+        var store = open(null, Duration.ofDays(1));
+
+        assertThat(store.record(30, 7, 9)).isFalse();
+        assertThat(store.record(30, 7, null)).isFalse();
+        assertThat(store.isExcluded(30, 7)).isFalse();
+
+        assertThat(store.record(30, 7, 214)).isTrue();
+        assertThat(store.isExcluded(30, 7)).isTrue();
+        assertThat(store.isExcluded(30, 8)).isFalse();
+    }
+
+    @Test
+    void groupAccessDeniedExcludesAllTopics() throws IOException {
+        var store = open(null, Duration.ofDays(1));
+
+        store.record(40, 3, 203);
+
+        assertThat(store.isExcluded(40, 3)).isTrue();
+        assertThat(store.isExcluded(40, 4)).isTrue();
+        assertThat(store.isExcluded(40, PostedIndex.WALL_TOPIC_ID)).isTrue();
+    }
+
+    @Test
+    void holdsManyEntries() throws IOException {
+        var store = open(null, Duration.ofDays(1));
+        for (var groupId = 1000; groupId < 5000; groupId++) {
+            store.record(groupId, PostedIndex.WALL_TOPIC_ID, 15);
+        }
+
+        for (var groupId = 1000; groupId < 5000; groupId++) {
+            assertThat(store.isExcluded(groupId, PostedIndex.WALL_TOPIC_ID)).isTrue();
+        }
+        assertThat(store.isExcluded(5000, PostedIndex.WALL_TOPIC_ID)).isFalse();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        var file = directory.resolve("exclusions.bin");
+        var store = open(file, Duration.ofDays(1));
+        store.record(50, PostedIndex.WALL_TOPIC_ID, 15);
+        store.record(60, 2, 214);
+        store.close();
+
+        var reopened = open(file, Duration.ofDays(1));
+
+        assertThat(reopened.isExcluded(50, PostedIndex.WALL_TOPIC_ID)).isTrue();
+        assertThat(reopened.isExcluded(60, 2)).isTrue();
+        assertThat(reopened.isExcluded(60, 3)).isFalse();
+        assertThat(Files.size(file)).isEqualTo(2L * RECORD_SIZE);
+    }
+
+    @Test
+    void expiredEntriesAreCompactedAway() throws IOException {
+        var file = directory.resolve("exclusions.bin");
+        var expiring = open(file, Duration.ZERO);
+        expiring.record(70, PostedIndex.WALL_TOPIC_ID, 15);
+        expiring.record(71, PostedIndex.WALL_TOPIC_ID, 15);
+        expiring.record(72, PostedIndex.WALL_TOPIC_ID, 15);
+        expiring.close();
+        assertThat(Files.size(file)).isEqualTo(3L * RECORD_SIZE);
+
+        var store = open(file, Duration.ofDays(1));
+        assertThat(store.isExcluded(70, PostedIndex.WALL_TOPIC_ID)).isFalse();
+        assertThat(Files.size(file)).isZero();
+        assertThat(directory.resolve("exclusions.bin.tmp")).doesNotExist();
+
+        store.record(73, PostedIndex.WALL_TOPIC_ID, 15);
+        store.close();
+
+        assertThat(Files.size(file)).isEqualTo(RECORD_SIZE);
+        assertThat(open(file, Duration.ofDays(1)).isExcluded(73, PostedIndex.WALL_TOPIC_ID)).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.devvault.vk.poster.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostedIndexTest {
+
+    // groupId, topicId, messageHash, postId, postedAt
+    private static final int RECORD_SIZE = 24;
+    private static final String MESSAGE = "Продам велосипед";
+
+    @TempDir
+    Path directory;
+
+    private static PostedIndex open(Path file) throws IOException {
+        var clientProperties = new ClientProperties();
+        clientProperties.setPostedIndexFile(file == null ? "" : file.toString());
+        clientProperties.setPostedIndexFreshness(Duration.ofHours(1));
+
+        var index = new PostedIndex(clientProperties);
+        index.open();
+
+        return index;
+    }
+
+    @Test
+    void disabledIndexStillTracksLastPost() throws IOException {
+        var index = open(null);
+
+        index.record(10, PostedIndex.WALL_TOPIC_ID, MESSAGE, 1, 1000);
+
+        assertThat(index.isEnabled()).isFalse();
+        assertThat(index.isFresh(10, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isFalse();
+        assertThat(index.lastPostedAt(10)).isEqualTo(1000);
+        assertThat(index.lastPostedAt(11)).isZero();
+    }
+
+    @Test
+    void foundOldPostIsStale() throws IOException {
+        var file = directory.resolve("posted.bin");
+        var index = open(file);
+        index.record(10, PostedIndex.WALL_TOPIC_ID, MESSAGE, 1);
+        // found on the wall, posted long ago
+        index.record(10, 5, MESSAGE, 2, 1000);
+        index.close();
+
+        var reopened = open(file);
+
+        assertThat(reopened.isFresh(10, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+        assertThat(reopened.isFresh(10, 5, MESSAGE)).isFalse();
+        assertThat(reopened.lastPostedAt(10)).isGreaterThan(1000);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        var file = directory.resolve("posted.bin");
+        var index = open(file);
+        index.record(10, PostedIndex.WALL_TOPIC_ID, MESSAGE, 1);
+        index.record(10, 5, MESSAGE, 2);
+        index.close();
+
+        var reopened = open(file);
+
+        assertThat(reopened.isFresh(10, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+        assertThat(reopened.isFresh(10, 5, MESSAGE)).isTrue();
+        assertThat(reopened.isFresh(10, PostedIndex.WALL_TOPIC_ID, "Другое сообщение")).isFalse();
+        assertThat(reopened.isFresh(11, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isFalse();
+    }
+
+    @Test
+    void tornTailRecordIsDropped() throws IOException {
+        var file = directory.resolve("posted.bin");
+        var index = open(file);
+        index.record(10, PostedIndex.WALL_TOPIC_ID, MESSAGE, 1);
+        index.close();
+        Files.write(file, new byte[RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        var reopened = open(file);
+        reopened.record(11, PostedIndex.WALL_TOPIC_ID, MESSAGE, 2);
+        reopened.close();
+
+        assertThat(Files.size(file)).isEqualTo(2L * RECORD_SIZE);
+        assertThat(open(file).isFresh(11, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+    }
+
+    @Test
+    void overwrittenEntriesAreCompacted() throws IOException {
+        var file = directory.resolve("posted.bin");
+        var index = open(file);
+        index.record(20, PostedIndex.WALL_TOPIC_ID, MESSAGE, 1);
+        index.record(20, PostedIndex.WALL_TOPIC_ID, MESSAGE, 2);
+        index.record(20, PostedIndex.WALL_TOPIC_ID, MESSAGE, 3);
+        index.close();
+        assertThat(Files.size(file)).isEqualTo(3L * RECORD_SIZE);
+
+        var reopened = open(file);
+        assertThat(Files.size(file)).isEqualTo(RECORD_SIZE);
+        assertThat(reopened.isFresh(20, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+        // the compacted file replaced the old one, no temp file is left behind
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+
+        reopened.record(21, PostedIndex.WALL_TOPIC_ID, MESSAGE, 4);
+        reopened.close();
+
+        var compacted = open(file);
+        assertThat(compacted.isFresh(20, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+        assertThat(compacted.isFresh(21, PostedIndex.WALL_TOPIC_ID, MESSAGE)).isTrue();
+    }
+}
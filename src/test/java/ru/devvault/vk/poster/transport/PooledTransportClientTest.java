@@ -0,0 +1,80 @@
+package ru.devvault.vk.poster.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import com.vk.api.sdk.client.VkApiClient;
+import com.vk.api.sdk.client.actors.UserActor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.devvault.vk.poster.configuration.ClientProperties;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledTransportClientTest {
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private PooledTransportClient transportClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // the JDK server sends the header as Content-type
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/method/", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+            var response = "{\"response\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        transportClient = new PooledTransportClient(new ClientProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        transportClient.close();
+        server.stop(0);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/method/";
+    }
+
+    @Test
+    void headersAreLookedUpCaseInsensitively() throws IOException {
+        var response = transportClient.post(url() + "execute", "code=return%201%3B");
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getHeaders().get("Content-Type")).startsWith("application/json");
+        assertThat(bodies).containsExactly("code=return%201%3B");
+    }
+
+    @Test
+    void sdkRequestsGoThroughTransport() throws Exception {
+        var apiClient = new VkApiClient(transportClient) {
+            @Override
+            public String getApiEndpoint() {
+                return url();
+            }
+        };
+
+        var response = apiClient.execute()
+                .code(new UserActor(1, "token"), "return 1;")
+                .executeAsString();
+
+        assertThat(response).isEqualTo("{\"response\":1}");
+        assertThat(URLDecoder.decode(bodies.get(0), StandardCharsets.UTF_8)).contains("code=return 1;");
+    }
+}